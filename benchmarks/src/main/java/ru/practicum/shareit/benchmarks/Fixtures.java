@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Объекты предметной области для бенчмарков без базы данных.
+ */
+final class Fixtures {
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder().id(id).name("User " + id).email("user" + id + "@mail.ru").build();
+    }
+
+    static Item item(long id, User owner) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .description("Description of item " + id)
+                .available(true)
+                .owner(owner)
+                .build();
+    }
+
+    static List<Booking> bookings(Item item, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = now.plusHours(i - count / 2);
+            bookings.add(Booking.builder()
+                    .id((long) i)
+                    .start(start)
+                    .end(start.plusMinutes(30))
+                    .item(item)
+                    .booker(user(1000L + i))
+                    .status(STATUSES[i % STATUSES.length])
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<Comment> comments(Item item, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(Comment.builder()
+                    .id((long) i)
+                    .text("Comment number " + i + " about " + item.getName())
+                    .item(item)
+                    .author(user(2000L + i))
+                    .created(now.minusDays(i))
+                    .build());
+        }
+        return comments;
+    }
+}
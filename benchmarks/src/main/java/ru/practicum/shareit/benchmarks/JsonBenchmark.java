@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов тем же ObjectMapper, что собирает Spring Boot для контроллеров.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"10", "1000"})
+    private int comments;
+
+    private ObjectMapper objectMapper;
+    private ItemDto itemDto;
+    private BookingDto bookingDto;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Item item = Fixtures.item(1L, Fixtures.user(1L));
+        itemDto = ItemMapper.toItemDto(item, Fixtures.comments(item, comments), Fixtures.bookings(item, 10));
+        bookingDto = BookingMapper.toBookingDto(Fixtures.bookings(item, 1).get(0));
+    }
+
+    @Benchmark
+    public byte[] serializeItemDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(itemDto);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingDto);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private Item item;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.item(1L, Fixtures.user(1L));
+        bookings = Fixtures.bookings(item, size);
+        comments = Fixtures.comments(item, size);
+        booking = bookings.get(0);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item, comments, bookings);
+    }
+
+    @Benchmark
+    public BookingDto bookingToBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервисы поверх заполненной базы H2 в памяти: запросы, маппинг и транзакции вместе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100"})
+    private int items;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmarks",
+                        "--logging.level.root=WARN",
+                        "--shareit.query-statistics.slow-query-log-enabled=false");
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        seed(context.getBean(UserRepository.class), context.getBean(ItemRepository.class),
+                context.getBean(BookingRepository.class), context.getBean(CommentRepository.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<ItemDto> getUserItems() {
+        return itemService.getUserItems(ownerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> getAllBookingsByUser() {
+        return bookingService.getAllBookingsByUser(bookerId, "ALL", 0, PAGE_SIZE);
+    }
+
+    private void seed(UserRepository userRepository, ItemRepository itemRepository,
+                      BookingRepository bookingRepository, CommentRepository commentRepository) {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@mail.ru").build());
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Item " + i)
+                    .description("Description of item " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (Booking booking : Fixtures.bookings(item, bookingsPerItem)) {
+                booking.setId(null);
+                booking.setBooker(booker);
+                bookings.add(booking);
+            }
+            for (Comment comment : Fixtures.comments(item, bookingsPerItem)) {
+                comment.setId(null);
+                comment.setAuthor(booker);
+                comments.add(comment);
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+    }
+}
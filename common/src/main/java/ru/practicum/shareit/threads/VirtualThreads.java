@@ -0,0 +1,67 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Виртуальные потоки ищутся через рефлексию: приложение собирается под Java 11 и использует их,
+ * только если запущено на JDK с {@code Thread.ofVirtual()}.
+ */
+@Slf4j
+public final class VirtualThreads {
+    private static final Method OF_VIRTUAL = findOfVirtual();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * @return исполнитель, запускающий каждую задачу в новом виртуальном потоке, или {@code platform.get()},
+     * если виртуальные потоки выключены или не поддерживаются JDK
+     */
+    public static ExecutorService newExecutor(boolean virtual, String namePrefix, Supplier<ExecutorService> platform) {
+        if (virtual) {
+            if (isSupported()) {
+                return newThreadPerTaskExecutor(namePrefix);
+            }
+            log.warn("Виртуальные потоки не поддерживаются JVM {}, используются обычные потоки для {}",
+                    Runtime.version(), namePrefix);
+        }
+        return platform.get();
+    }
+
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | NullPointerException e) {
+            throw new IllegalStateException("Виртуальные потоки недоступны", e);
+        }
+    }
+
+    private static Method findOfVirtual() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // на JDK 19-20 без --enable-preview
+            return null;
+        }
+    }
+}
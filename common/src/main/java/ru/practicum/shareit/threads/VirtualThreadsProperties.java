@@ -0,0 +1,12 @@
+package ru.practicum.shareit.threads;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.virtual-threads")
+public class VirtualThreadsProperties {
+    private boolean enabled = false;
+}
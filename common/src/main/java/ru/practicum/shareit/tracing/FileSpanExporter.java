@@ -0,0 +1,104 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замена OTLP-экспортёра: завершённые спаны пишет в файл строками JSON фоновый поток.
+ * Когда очередь заполнена, спаны отбрасываются, а не замедляют запросы.
+ */
+@Slf4j
+public class FileSpanExporter implements AutoCloseable {
+    private final String serviceName;
+    private final Path file;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<Map<String, Object>> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FileSpanExporter(String serviceName, Path file, int queueSize) {
+        this.serviceName = serviceName;
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writer = new Thread(this::writeLoop, "shareit-span-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void export(Span span) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("service", serviceName);
+        record.put("traceId", span.getContext().getTraceId());
+        record.put("spanId", span.getContext().getSpanId());
+        record.put("parentSpanId", span.getParentSpanId());
+        record.put("name", span.getName());
+        record.put("kind", span.getKind());
+        record.put("startTimeMicros", span.getStartEpochMicros());
+        record.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()));
+        record.put("error", span.getError());
+        synchronized (span.getAttributes()) {
+            record.put("attributes", new LinkedHashMap<>(span.getAttributes()));
+        }
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void writeLoop() {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Map<String, Object> first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Map<String, Object>> batch) {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map<String, Object> record : batch) {
+                out.write(objectMapper.writeValueAsString(record));
+                out.newLine();
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось записать {} спанов в {}: {}", batch.size(), file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Операция трассы с замером времени. Начатый спан становится текущим для потока,
+ * закрытие возвращает предыдущий и передаёт спан экспортёру.
+ */
+@Getter
+public class Span implements AutoCloseable {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final Tracer tracer;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final long startEpochMicros;
+    private final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private final long startNanos;
+    private final Span previous;
+    private volatile String name;
+    private volatile String error;
+    private volatile long durationNanos;
+
+    Span(Tracer tracer, String name, SpanKind kind, TraceContext context, String parentSpanId) {
+        this.tracer = tracer;
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        this.startNanos = System.nanoTime();
+        this.previous = CURRENT.get();
+        CURRENT.set(this);
+    }
+
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Привязывает текущий спан вызывающего к задаче, чтобы спаны из потока исполнителя попали в ту же трассу.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        Span span = CURRENT.get();
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(span);
+            try {
+                return task.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    public Span setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        attributes.put(key, value);
+        return this;
+    }
+
+    public Span recordError(Throwable e) {
+        this.error = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (!ended.compareAndSet(false, true)) {
+            return;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+        tracer.onEnd(this);
+    }
+}
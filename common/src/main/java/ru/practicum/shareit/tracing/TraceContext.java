@@ -0,0 +1,61 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Контекст трассировки W3C: {@code traceparent: 00-<trace-id>-<parent-id>-<flags>}.
+ */
+@Getter
+public final class TraceContext {
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    private static final Pattern TRACEPARENT = Pattern.compile("^00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})$");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * @return контекст из заголовка или null, если заголовка нет или он некорректен
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        Matcher matcher = TRACEPARENT.matcher(traceparent.trim());
+        if (!matcher.matches() || INVALID_TRACE_ID.equals(matcher.group(1)) || INVALID_SPAN_ID.equals(matcher.group(2))) {
+            return null;
+        }
+        boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+        return new TraceContext(matcher.group(1), matcher.group(2), sampled);
+    }
+
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    static String randomTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return hex(random.nextLong()) + hex(random.nextLong());
+    }
+
+    static String randomSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+}
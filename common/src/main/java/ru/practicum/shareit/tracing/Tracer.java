@@ -0,0 +1,76 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@EnableConfigurationProperties(TracingProperties.class)
+public class Tracer {
+    private final double sampleRatio;
+    private final FileSpanExporter exporter;
+
+    @Autowired
+    public Tracer(TracingProperties properties) {
+        this(properties.getSampleRatio(), properties.isEnabled() && !properties.getExportFile().isBlank()
+                ? new FileSpanExporter(properties.getServiceName(), Path.of(properties.getExportFile()),
+                properties.getExportQueueSize())
+                : null);
+    }
+
+    Tracer(double sampleRatio, @Nullable FileSpanExporter exporter) {
+        this.sampleRatio = sampleRatio;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Начинает спан входящего запроса, продолжая трассу вызывающего, если заголовок traceparent корректен.
+     */
+    public Span startServerSpan(String name, @Nullable String traceparent) {
+        TraceContext parent = TraceContext.parse(traceparent);
+        if (parent == null) {
+            return startRoot(name, SpanKind.SERVER);
+        }
+        return new Span(this, name, SpanKind.SERVER,
+                new TraceContext(parent.getTraceId(), TraceContext.randomSpanId(), parent.isSampled()),
+                parent.getSpanId());
+    }
+
+    /**
+     * Начинает дочерний спан текущего или новую трассу, если текущего спана нет.
+     */
+    public Span startSpan(String name, SpanKind kind) {
+        Span parent = Span.current();
+        if (parent == null) {
+            return startRoot(name, kind);
+        }
+        TraceContext parentContext = parent.getContext();
+        return new Span(this, name, kind,
+                new TraceContext(parentContext.getTraceId(), TraceContext.randomSpanId(), parentContext.isSampled()),
+                parentContext.getSpanId());
+    }
+
+    void onEnd(Span span) {
+        if (exporter != null && span.getContext().isSampled()) {
+            exporter.export(span);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+
+    private Span startRoot(String name, SpanKind kind) {
+        boolean sampled = sampleRatio >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRatio;
+        return new Span(this, name, kind, new TraceContext(TraceContext.randomTraceId(), TraceContext.randomSpanId(),
+                sampled), null);
+    }
+}
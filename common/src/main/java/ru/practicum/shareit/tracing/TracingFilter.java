@@ -0,0 +1,50 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Открывает серверный спан каждого запроса и возвращает вызывающему его traceparent.
+ */
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+    private final Tracer tracer;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.startServerSpan(request.getMethod() + " " + request.getRequestURI(),
+                request.getHeader(TraceContext.TRACEPARENT_HEADER));
+        MDC.put("traceId", span.getContext().getTraceId());
+        response.setHeader(TraceContext.TRACEPARENT_HEADER, span.getContext().toTraceparent());
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.setName(request.getMethod() + " " + pattern);
+            }
+            span.setAttribute("http.method", request.getMethod());
+            span.setAttribute("http.target", request.getRequestURI());
+            span.setAttribute("http.status_code", response.getStatus());
+            span.close();
+            MDC.remove("traceId");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.tracing")
+public class TracingProperties {
+    private boolean enabled = false;
+    /**
+     * Имя сервиса в экспортируемых спанах; сервер и шлюз задают своё в application.properties.
+     */
+    private String serviceName = "shareit";
+    private double sampleRatio = 1.0;
+    private String exportFile = "traces.jsonl";
+    private int exportQueueSize = 10000;
+}
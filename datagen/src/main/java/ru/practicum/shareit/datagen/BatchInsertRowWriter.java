@@ -0,0 +1,51 @@
+package ru.practicum.shareit.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+class BatchInsertRowWriter implements RowWriter {
+    private final Connection connection;
+    private final PreparedStatement insert;
+    private final int batchSize;
+    private int pending;
+
+    BatchInsertRowWriter(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.insert = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                + ") VALUES (" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")");
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            insert.setObject(i + 1, value instanceof LocalDateTime ? Timestamp.valueOf((LocalDateTime) value) : value);
+        }
+        insert.addBatch();
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            insert.close();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            insert.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Загружает строки в PostgreSQL через COPY ... FROM STDIN в формате CSV.
+ */
+class CopyRowWriter implements RowWriter {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Connection connection;
+    private final CopyManager copyManager;
+    private final String copySql;
+    private final int batchSize;
+    private final StringBuilder chunk = new StringBuilder();
+    private int pending;
+
+    CopyRowWriter(Connection connection, int batchSize, String table, String... columns) throws SQLException {
+        this.connection = connection;
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        this.copySql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                chunk.append(',');
+            }
+            append(values[i]);
+        }
+        chunk.append('\n');
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            chunk.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else if (value instanceof LocalDateTime) {
+            chunk.append(TIMESTAMP.format((LocalDateTime) value));
+        } else {
+            chunk.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        try {
+            copyManager.copyIn(copySql, new StringReader(chunk.toString()));
+        } catch (IOException e) {
+            throw new SQLException("Ошибка передачи данных в COPY", e);
+        }
+        connection.commit();
+        chunk.setLength(0);
+        pending = 0;
+    }
+}
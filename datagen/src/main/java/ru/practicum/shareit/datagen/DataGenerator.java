@@ -0,0 +1,310 @@
+package ru.practicum.shareit.datagen;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массово заполняет базу ShareIt синтетическими данными: в PostgreSQL через COPY, в остальные базы пачками INSERT.
+ * Идентификаторы выдаются явно, начиная после уже существующих строк, а счётчики identity затем сдвигаются,
+ * поэтому при одинаковых настройках и исходном состоянии базы результат совпадает построчно.
+ * <p>
+ * Время бронирований растёт к текущему моменту (чем ближе к {@code now}, тем плотнее), начала приходятся
+ * на дневные часы, длительность распределена логнормально с медианой в сутки.
+ */
+public class DataGenerator {
+    static final List<String> WORDS = List.of("drill", "saw", "ladder", "tent", "bike", "camera", "kayak",
+            "projector", "hammer", "grill", "guitar", "scooter", "drone", "sleeping bag", "boat", "snowboard",
+            "lawn mower", "sewing machine", "telescope", "speaker");
+    private static final List<String> ADJECTIVES = List.of("old", "new", "compact", "heavy", "electric",
+            "folding", "professional", "kids", "vintage", "lightweight");
+    private static final int[] HOUR_WEIGHTS = {1, 1, 1, 1, 1, 2, 4, 8, 12, 14, 14, 13, 12, 12, 12, 12, 13, 14, 14,
+            12, 9, 6, 3, 2};
+    private static final int HOUR_WEIGHT_TOTAL = Arrays.stream(HOUR_WEIGHTS).sum();
+
+    private final DataGeneratorSettings settings;
+    private final Random random;
+
+    public DataGenerator(DataGeneratorSettings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.getSeed());
+    }
+
+    public static void main(String[] args) throws SQLException {
+        DataGeneratorSettings settings = new DataGeneratorSettings();
+        String url = null;
+        String user = null;
+        String password = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидается параметр вида --name=value: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            if ("url".equals(name)) {
+                url = value;
+            } else if ("user".equals(name)) {
+                user = value;
+            } else if ("password".equals(name)) {
+                password = value;
+            } else {
+                settings.set(name, value);
+            }
+        }
+        if (url == null) {
+            throw new IllegalArgumentException("Не указан --url базы данных");
+        }
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            new DataGenerator(settings).generate(connection);
+        }
+    }
+
+    public GeneratedDataset generate(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            boolean copy = connection.isWrapperFor(PGConnection.class);
+            long firstUserId = nextId(connection, "users");
+            long firstRequestId = nextId(connection, "requests");
+            long firstItemId = nextId(connection, "items");
+            long firstBookingId = nextId(connection, "bookings");
+            long firstCommentId = nextId(connection, "comments");
+            ZipfSampler owners = new ZipfSampler(settings.getUsers(), settings.getUserSkew(), settings.getSeed() + 1);
+            ZipfSampler customers = new ZipfSampler(settings.getUsers(), settings.getUserSkew(), settings.getSeed() + 2);
+            ZipfSampler hotItems = new ZipfSampler(Math.max(1, settings.getItems()), settings.getItemSkew(),
+                    settings.getSeed() + 3);
+
+            long started = System.nanoTime();
+            writeUsers(connection, copy, firstUserId);
+            writeRequests(connection, copy, firstRequestId, firstUserId, customers);
+            long[] itemOwnerIds = writeItems(connection, copy, firstItemId, firstUserId, firstRequestId, owners);
+            PastBookings pastBookings = writeBookings(connection, copy, firstBookingId, firstItemId, firstUserId,
+                    itemOwnerIds, hotItems, customers);
+            writeComments(connection, copy, firstCommentId, firstItemId, firstUserId, pastBookings);
+            for (String table : List.of("users", "requests", "items", "bookings", "comments")) {
+                restartIdentity(connection, copy, table);
+            }
+            connection.commit();
+            System.out.printf("Данные сгенерированы за %d с%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+            return new GeneratedDataset(firstUserId, settings.getUsers(), firstItemId, itemOwnerIds, WORDS);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void writeUsers(Connection connection, boolean copy, long firstId) throws SQLException {
+        long started = System.nanoTime();
+        try (RowWriter users = RowWriter.open(connection, copy, settings.getBatchSize(), "users", "id", "name", "email")) {
+            for (int i = 0; i < settings.getUsers(); i++) {
+                long id = firstId + i;
+                users.write(id, "User " + id, "user" + id + "@example.com");
+            }
+        }
+        report("users", settings.getUsers(), started);
+    }
+
+    private void writeRequests(Connection connection, boolean copy, long firstId, long firstUserId,
+                               ZipfSampler requestors) throws SQLException {
+        long started = System.nanoTime();
+        LocalDateTime from = settings.getNow().minusDays(settings.getHistoryDays());
+        long historyMinutes = TimeUnit.DAYS.toMinutes(settings.getHistoryDays());
+        try (RowWriter requests = RowWriter.open(connection, copy, settings.getBatchSize(), "requests",
+                "id", "description", "requestor_id", "created")) {
+            for (int i = 0; i < settings.getRequests(); i++) {
+                LocalDateTime created = from.plusMinutes((long) (historyMinutes * growth(i, settings.getRequests())));
+                requests.write(firstId + i, "Need a " + randomWord() + " for a weekend",
+                        firstUserId + requestors.sample(random), created);
+            }
+        }
+        report("requests", settings.getRequests(), started);
+    }
+
+    private long[] writeItems(Connection connection, boolean copy, long firstId, long firstUserId,
+                              long firstRequestId, ZipfSampler owners) throws SQLException {
+        long started = System.nanoTime();
+        long[] ownerIds = new long[settings.getItems()];
+        try (RowWriter items = RowWriter.open(connection, copy, settings.getBatchSize(), "items",
+                "id", "name", "description", "available", "owner_id", "request_id")) {
+            for (int i = 0; i < settings.getItems(); i++) {
+                String word = randomWord();
+                String adjective = ADJECTIVES.get(random.nextInt(ADJECTIVES.size()));
+                ownerIds[i] = firstUserId + owners.sample(random);
+                Long requestId = settings.getRequests() > 0 && random.nextDouble() < settings.getRequestAnswerShare()
+                        ? firstRequestId + random.nextInt(settings.getRequests())
+                        : null;
+                items.write(firstId + i, adjective + " " + word, "A " + adjective + " " + word + " in good condition",
+                        random.nextDouble() < settings.getAvailableShare(), ownerIds[i], requestId);
+            }
+        }
+        report("items", settings.getItems(), started);
+        return ownerIds;
+    }
+
+    private PastBookings writeBookings(Connection connection, boolean copy, long firstId, long firstItemId,
+                                       long firstUserId, long[] itemOwnerIds, ZipfSampler hotItems,
+                                       ZipfSampler bookers) throws SQLException {
+        long started = System.nanoTime();
+        LocalDateTime now = settings.getNow();
+        LocalDateTime from = now.minusDays(settings.getHistoryDays());
+        PastBookings past = new PastBookings(from);
+        if (itemOwnerIds.length == 0) {
+            return past;
+        }
+        long windowDays = settings.getHistoryDays() + settings.getFutureDays();
+        try (RowWriter bookings = RowWriter.open(connection, copy, settings.getBatchSize(), "bookings",
+                "id", "start_date", "end_date", "item_id", "booker_id", "status")) {
+            for (int i = 0; i < settings.getBookings(); i++) {
+                int item = hotItems.sample(random);
+                int booker = bookers.sample(random);
+                for (int attempt = 0; firstUserId + booker == itemOwnerIds[item] && attempt < 10; attempt++) {
+                    booker = bookers.sample(random);
+                }
+                LocalDateTime start = from.plusDays((long) (windowDays * growth(i, settings.getBookings())))
+                        .plusHours(randomHour()).plusMinutes(random.nextInt(4) * 15L);
+                LocalDateTime end = start.plusMinutes(durationMinutes(24 * 60, 1.0, 60, 30 * 24 * 60));
+                String status = status(start, end, now);
+                bookings.write(firstId + i, start, end, firstItemId + item, firstUserId + booker, status);
+                if (end.isBefore(now) && "APPROVED".equals(status)) {
+                    past.add(item, booker, end);
+                }
+            }
+        }
+        report("bookings", settings.getBookings(), started);
+        return past;
+    }
+
+    private void writeComments(Connection connection, boolean copy, long firstId, long firstItemId, long firstUserId,
+                               PastBookings past) throws SQLException {
+        long started = System.nanoTime();
+        int count = past.size() == 0 ? 0 : settings.getComments();
+        try (RowWriter comments = RowWriter.open(connection, copy, settings.getBatchSize(), "comments",
+                "id", "text", "item_id", "author_id", "created")) {
+            for (int i = 0; i < count; i++) {
+                int booking = random.nextInt(past.size());
+                LocalDateTime created = past.end(booking).plusMinutes(durationMinutes(12 * 60, 1.0, 10, 14 * 24 * 60));
+                if (created.isAfter(settings.getNow())) {
+                    created = settings.getNow().minusMinutes(random.nextInt(60));
+                }
+                comments.write(firstId + i, "The " + randomWord() + " worked fine, would book again",
+                        firstItemId + past.item(booking), firstUserId + past.booker(booking), created);
+            }
+        }
+        report("comments", count, started);
+    }
+
+    private String status(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return roll < 85 ? "APPROVED" : roll < 93 ? "REJECTED" : "CANCELED";
+        }
+        if (start.isAfter(now)) {
+            return roll < 40 ? "WAITING" : roll < 90 ? "APPROVED" : "REJECTED";
+        }
+        return "APPROVED";
+    }
+
+    /**
+     * Доля пройденного окна для i-й строки из n: плотность линейно растёт к концу окна.
+     */
+    private static double growth(int i, int n) {
+        return Math.sqrt((i + 0.5) / n);
+    }
+
+    private int randomHour() {
+        int point = random.nextInt(HOUR_WEIGHT_TOTAL);
+        int hour = 0;
+        while (point >= HOUR_WEIGHTS[hour]) {
+            point -= HOUR_WEIGHTS[hour++];
+        }
+        return hour;
+    }
+
+    private long durationMinutes(double medianMinutes, double sigma, long min, long max) {
+        long minutes = Math.round(medianMinutes * Math.exp(sigma * random.nextGaussian()));
+        return Math.max(min, Math.min(max, minutes));
+    }
+
+    private String randomWord() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void restartIdentity(Connection connection, boolean postgres, String table) throws SQLException {
+        long next = nextId(connection, table);
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + next + ", false)");
+            } else {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+        }
+    }
+
+    private static void report(String table, int rows, long startedNanos) {
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+        System.out.printf("%-9s %,12d строк за %,8d мс (%,d строк/с)%n", table, rows, millis, rows * 1000L / millis);
+    }
+
+    /**
+     * Завершённые подтверждённые бронирования в компактном виде - из них выбираются авторы отзывов.
+     */
+    private static class PastBookings {
+        private final LocalDateTime origin;
+        private int[] items = new int[1024];
+        private int[] bookers = new int[1024];
+        private int[] endMinutes = new int[1024];
+        private int size;
+
+        PastBookings(LocalDateTime origin) {
+            this.origin = origin;
+        }
+
+        void add(int item, int booker, LocalDateTime end) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+                bookers = Arrays.copyOf(bookers, size * 2);
+                endMinutes = Arrays.copyOf(endMinutes, size * 2);
+            }
+            items[size] = item;
+            bookers[size] = booker;
+            endMinutes[size++] = (int) ChronoUnit.MINUTES.between(origin, end);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int item(int index) {
+            return items[index];
+        }
+
+        int booker(int index) {
+            return bookers[index];
+        }
+
+        LocalDateTime end(int index) {
+            return origin.plusMinutes(endMinutes[index]);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Объёмы и форма данных. Перекос задаётся показателем Ципфа: 0 - равномерно, около 1 - несколько процентов
+ * вещей и пользователей собирают большую часть бронирований. Время отсчитывается от {@code now},
+ * по умолчанию от начала текущих суток, чтобы прогоны с одним seed в течение дня совпадали.
+ */
+@Getter
+@Setter
+public class DataGeneratorSettings {
+    private int users = 10_000;
+    private int requests = 2_000;
+    private int items = 50_000;
+    private int bookings = 200_000;
+    private int comments = 50_000;
+    private double itemSkew = 1.0;
+    private double userSkew = 0.8;
+    private double requestAnswerShare = 0.2;
+    private double availableShare = 0.9;
+    private int historyDays = 365;
+    private int futureDays = 60;
+    private long seed = 42;
+    private int batchSize = 5_000;
+    private LocalDateTime now = LocalDate.now().atStartOfDay();
+
+    /**
+     * Устанавливает параметр по имени в виде опции командной строки, например {@code item-skew}.
+     */
+    public void set(String name, String value) {
+        switch (name) {
+            case "users":
+                users = Integer.parseInt(value);
+                break;
+            case "requests":
+                requests = Integer.parseInt(value);
+                break;
+            case "items":
+                items = Integer.parseInt(value);
+                break;
+            case "bookings":
+                bookings = Integer.parseInt(value);
+                break;
+            case "comments":
+                comments = Integer.parseInt(value);
+                break;
+            case "item-skew":
+                itemSkew = Double.parseDouble(value);
+                break;
+            case "user-skew":
+                userSkew = Double.parseDouble(value);
+                break;
+            case "request-answer-share":
+                requestAnswerShare = Double.parseDouble(value);
+                break;
+            case "available-share":
+                availableShare = Double.parseDouble(value);
+                break;
+            case "history-days":
+                historyDays = Integer.parseInt(value);
+                break;
+            case "future-days":
+                futureDays = Integer.parseInt(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            case "batch-size":
+                batchSize = Integer.parseInt(value);
+                break;
+            case "now":
+                now = LocalDateTime.parse(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный параметр: --" + name);
+        }
+    }
+}
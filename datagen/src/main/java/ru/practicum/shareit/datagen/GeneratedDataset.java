@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Диапазоны идентификаторов, выданных генератором, и владельцы вещей - для построения нагрузки поверх данных.
+ */
+@Getter
+@RequiredArgsConstructor
+public class GeneratedDataset {
+    private final long firstUserId;
+    private final int userCount;
+    private final long firstItemId;
+    private final long[] itemOwnerIds;
+    private final List<String> searchWords;
+
+    public long userId(int index) {
+        return firstUserId + index;
+    }
+
+    public long itemId(int index) {
+        return firstItemId + index;
+    }
+
+    public long itemOwnerId(int index) {
+        return itemOwnerIds[index];
+    }
+
+    public int getItemCount() {
+        return itemOwnerIds.length;
+    }
+}
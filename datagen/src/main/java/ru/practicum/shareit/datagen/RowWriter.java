@@ -0,0 +1,22 @@
+package ru.practicum.shareit.datagen;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Пишет строки одной таблицы пачками и фиксирует транзакцию после каждой пачки.
+ */
+interface RowWriter extends AutoCloseable {
+
+    void write(Object... values) throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+
+    static RowWriter open(Connection connection, boolean copy, int batchSize, String table, String... columns)
+            throws SQLException {
+        return copy
+                ? new CopyRowWriter(connection, batchSize, table, columns)
+                : new BatchInsertRowWriter(connection, batchSize, table, columns);
+    }
+}
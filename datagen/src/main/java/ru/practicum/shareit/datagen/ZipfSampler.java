@@ -0,0 +1,85 @@
+package ru.practicum.shareit.datagen;
+
+import java.util.Random;
+
+/**
+ * Выбирает индекс из [0, n) по закону Ципфа с заданным показателем: при 0 - равномерно, при 1 и выше
+ * небольшая доля индексов получает большую часть выборок. Популярные индексы разбросаны по диапазону
+ * биекцией, а не собраны в его начале. Память не зависит от n (rejection-inversion, Hörmann и Derflinger).
+ */
+public class ZipfSampler {
+    private final int n;
+    private final double exponent;
+    private final long multiplier;
+    private final long offset;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    public ZipfSampler(int n, double exponent, long seed) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Размер диапазона должен быть положительным: " + n);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        Random random = new Random(seed);
+        long candidate = n / 2 + 1 + (n > 2 ? random.nextInt(n / 2) : 0);
+        while (gcd(candidate, n) != 1) {
+            candidate++;
+        }
+        this.multiplier = candidate;
+        this.offset = random.nextInt(n);
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    public int sample(Random random) {
+        if (exponent <= 0) {
+            return random.nextInt(n);
+        }
+        return scatter(rank(random) - 1);
+    }
+
+    private int rank(Random random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            k = Math.max(1, Math.min(n, k));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private int scatter(int rank) {
+        return (int) ((rank * multiplier + offset) % n);
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1, x * (1 - exponent));
+        return Math.exp(helper1(t) * x);
+    }
+
+    private static double helper1(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1 / 3.0 - 0.25 * x));
+    }
+
+    private static double helper2(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.datagen;
+
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataGeneratorTest {
+
+    @Test
+    void testSameSeedProducesSameRows() throws Exception {
+        try (Connection first = database("first"); Connection second = database("second")) {
+            new DataGenerator(settings(7)).generate(first);
+            new DataGenerator(settings(7)).generate(second);
+
+            for (String table : new String[]{"users", "requests", "items", "bookings", "comments"}) {
+                assertEquals(dump(first, table), dump(second, table), table);
+            }
+        }
+    }
+
+    @Test
+    void testRowsAreConsistentAndSkewed() throws Exception {
+        DataGeneratorSettings settings = settings(42);
+        try (Connection connection = database("consistent")) {
+            GeneratedDataset dataset = new DataGenerator(settings).generate(connection);
+
+            assertEquals(settings.getBookings(), count(connection, "SELECT COUNT(*) FROM bookings"));
+            assertEquals(settings.getComments(), count(connection, "SELECT COUNT(*) FROM comments"));
+            assertEquals(settings.getItems(), dataset.getItemCount());
+            assertEquals(0, count(connection, "SELECT COUNT(*) FROM comments c WHERE NOT EXISTS (SELECT 1 FROM bookings b "
+                    + "WHERE b.item_id = c.item_id AND b.booker_id = c.author_id AND b.status = 'APPROVED' "
+                    + "AND b.end_date <= c.created)"));
+            assertEquals(0, count(connection, "SELECT COUNT(*) FROM bookings b JOIN items i ON i.id = b.item_id "
+                    + "WHERE b.end_date <= b.start_date"));
+            long topItemsBookings = count(connection, "SELECT COALESCE(SUM(c), 0) FROM (SELECT COUNT(*) c FROM bookings "
+                    + "GROUP BY item_id ORDER BY c DESC LIMIT " + settings.getItems() / 20 + ")");
+            assertTrue(topItemsBookings > settings.getBookings() * 0.3, "5% вещей: " + topItemsBookings);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO users (name, email) VALUES ('New', 'new@mail.ru')");
+            }
+            assertEquals(settings.getUsers() + 1, count(connection, "SELECT MAX(id) FROM users"));
+        }
+    }
+
+    @Test
+    void testSecondRunAppendsAfterExistingRows() throws Exception {
+        try (Connection connection = database("append")) {
+            new DataGenerator(settings(1)).generate(connection);
+            GeneratedDataset second = new DataGenerator(settings(2)).generate(connection);
+
+            assertEquals(settings(2).getUsers() + 1, second.getFirstUserId());
+            assertEquals(2L * settings(1).getBookings(), count(connection, "SELECT COUNT(*) FROM bookings"));
+        }
+    }
+
+    private static DataGeneratorSettings settings(long seed) {
+        DataGeneratorSettings settings = new DataGeneratorSettings();
+        settings.setUsers(200);
+        settings.setRequests(50);
+        settings.setItems(1000);
+        settings.setBookings(5000);
+        settings.setComments(1000);
+        settings.setBatchSize(500);
+        settings.setSeed(seed);
+        settings.setNow(LocalDateTime.of(2024, 6, 1, 0, 0));
+        return settings;
+    }
+
+    private static Connection database(String name) throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + name, "test", "test");
+        try (Reader schema = new InputStreamReader(
+                Objects.requireNonNull(DataGeneratorTest.class.getResourceAsStream("/schema.sql")),
+                StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, schema);
+        }
+        return connection;
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static String dump(Connection connection, String table) throws SQLException {
+        StringBuilder rows = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT * FROM " + table + " ORDER BY id")) {
+            int columns = result.getMetaData().getColumnCount();
+            while (result.next()) {
+                for (int column = 1; column <= columns; column++) {
+                    rows.append(result.getString(column)).append('|');
+                }
+                rows.append('\n');
+            }
+        }
+        return rows.toString();
+    }
+}
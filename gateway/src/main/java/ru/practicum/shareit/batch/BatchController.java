@@ -0,0 +1,28 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchSubRequest;
+import ru.practicum.shareit.batch.dto.BatchSubResponse;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/batch")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchController {
+    private final BatchService batchService;
+
+    @PostMapping
+    public List<BatchSubResponse> executeBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestBody List<BatchSubRequest> requests) {
+        log.info("Пользователь id {} выполнил пакет из {} запросов", userId, requests.size());
+        return batchService.execute(userId, requests);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.batch")
+public class BatchProperties {
+    private int maxSubRequests = 10;
+    private int threads = 32;
+}
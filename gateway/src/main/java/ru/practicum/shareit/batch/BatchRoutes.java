@@ -0,0 +1,203 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.StateOfBookingRequest;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * GET-маршруты шлюза, доступные в пакете. Каждый шаблон вызывает метод клиента и проверяет параметры
+ * так же, как соответствующий контроллер, поэтому подзапрос не может обратиться к пути сервера,
+ * которого нет в API шлюза.
+ */
+class BatchRoutes {
+    private static final String ID = "{id}";
+
+    private final List<Route> routes;
+
+    BatchRoutes(UserClient userClient, ItemClient itemClient, BookingClient bookingClient,
+                ItemRequestClient requestClient) {
+        this.routes = List.of(
+                new Route(List.of("users"), (userId, args) -> {
+                    long afterId = args.positiveOrZeroLong("afterId", 0L);
+                    Integer size = args.positiveInt("size", null);
+                    return size == null ? userClient.getAllUsers() : userClient.getUsersAfter(afterId, size);
+                }),
+                new Route(List.of("users", ID), (userId, args) -> userClient.getUserById(args.getId())),
+                new Route(List.of("items"), (userId, args) ->
+                        itemClient.getUserItems(userId, args.from(), args.size())),
+                new Route(List.of("items", "search"), (userId, args) ->
+                        itemClient.searchItem(userId, args.required("text"), args.from(), args.size())),
+                new Route(List.of("items", ID), (userId, args) -> itemClient.getItemById(args.getId(), userId)),
+                new Route(List.of("bookings"), (userId, args) ->
+                        bookingClient.getUserBookings(userId, args.state(), args.from(), args.size())),
+                new Route(List.of("bookings", "owner"), (userId, args) ->
+                        bookingClient.getBookingsForUserItems(userId, args.state(), args.from(), args.size())),
+                new Route(List.of("bookings", ID), (userId, args) -> bookingClient.getBooking(args.getId(), userId)),
+                new Route(List.of("requests"), (userId, args) -> requestClient.getUserRequests(userId)),
+                new Route(List.of("requests", "all"), (userId, args) -> {
+                    int from = args.from();
+                    int size = args.size();
+                    LocalDateTime afterCreated = args.dateTime("afterCreated");
+                    Long afterId = args.optionalLong("afterId");
+                    if (afterCreated != null && afterId != null) {
+                        return requestClient.getAllRequests(userId, afterCreated, afterId, size);
+                    }
+                    return requestClient.getAllRequests(userId, from, size);
+                }),
+                new Route(List.of("requests", ID), (userId, args) ->
+                        requestClient.getRequestById(userId, args.getId()))
+        );
+    }
+
+    /**
+     * @param segments декодированные сегменты пути
+     * @return null, если путь не совпал ни с одним маршрутом
+     */
+    @Nullable
+    Route match(List<String> segments) {
+        for (Route route : routes) {
+            if (route.matches(segments)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    static final class Route {
+        private final List<String> template;
+        private final Handler handler;
+
+        private Route(List<String> template, Handler handler) {
+            this.template = template;
+            this.handler = handler;
+        }
+
+        private boolean matches(List<String> segments) {
+            if (segments.size() != template.size()) {
+                return false;
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                if (!template.get(i).equals(ID) && !template.get(i).equals(segments.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @throws IllegalArgumentException если параметры не проходят проверки контроллера
+         */
+        ResponseEntity<Object> handle(Long userId, List<String> segments, MultiValueMap<String, String> query) {
+            Long id = null;
+            int idIndex = template.indexOf(ID);
+            if (idIndex >= 0) {
+                id = parseLong("id", segments.get(idIndex));
+            }
+            return handler.handle(userId, new Arguments(id, query));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        ResponseEntity<Object> handle(Long userId, Arguments args);
+    }
+
+    private static final class Arguments {
+        private final Long id;
+        private final MultiValueMap<String, String> query;
+
+        private Arguments(@Nullable Long id, MultiValueMap<String, String> query) {
+            this.id = id;
+            this.query = query;
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        int from() {
+            long from = positiveOrZeroLong("from", 0L);
+            if (from > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Недопустимое значение 'from': %d", from));
+            }
+            return (int) from;
+        }
+
+        int size() {
+            return positiveInt("size", 10);
+        }
+
+        StateOfBookingRequest state() {
+            String state = query.getFirst("state");
+            String stateParam = state == null ? "ALL" : state;
+            return StateOfBookingRequest.from(stateParam)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        }
+
+        String required(String name) {
+            String value = query.getFirst(name);
+            if (value == null) {
+                throw new IllegalArgumentException(String.format("Параметр '%s' обязателен", name));
+            }
+            return value;
+        }
+
+        @Nullable
+        Long optionalLong(String name) {
+            String value = query.getFirst(name);
+            return value == null ? null : parseLong(name, value);
+        }
+
+        long positiveOrZeroLong(String name, long defaultValue) {
+            String value = query.getFirst(name);
+            long number = value == null ? defaultValue : parseLong(name, value);
+            if (number < 0) {
+                throw new IllegalArgumentException(String.format("Значение '%s' должно быть положительным", name));
+            }
+            return number;
+        }
+
+        @Nullable
+        Integer positiveInt(String name, @Nullable Integer defaultValue) {
+            String value = query.getFirst(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            long number = parseLong(name, value);
+            if (number <= 0 || number > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Значение '%s' должно быть положительным", name));
+            }
+            return (int) number;
+        }
+
+        @Nullable
+        LocalDateTime dateTime(String name) {
+            String value = query.getFirst(name);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(String.format("Недопустимое значение '%s': %s", name, value));
+            }
+        }
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Недопустимое значение '%s': %s", name, value));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.batch.dto.BatchSubRequest;
+import ru.practicum.shareit.batch.dto.BatchSubResponse;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.error.ErrorResponse;
+import ru.practicum.shareit.error.TooManyRequestsException;
+import ru.practicum.shareit.error.UpstreamUnavailableException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.ratelimit.TokenBucketRateLimiter;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.threads.VirtualThreads;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+import ru.practicum.shareit.tracing.Span;
+import ru.practicum.shareit.user.UserClient;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Выполняет GET-подзапросы пакета параллельно через клиенты сервера. Путь подзапроса должен совпасть
+ * с одним из маршрутов {@link BatchRoutes}, иначе он не уходит на сервер.
+ * Каждый подзапрос расходует лимит своего маршрута и получает собственный статус.
+ */
+@Service
+@Slf4j
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchService {
+    private final BatchProperties properties;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final BatchRoutes routes;
+    private final ExecutorService executor;
+
+    public BatchService(BatchProperties properties, VirtualThreadsProperties virtualThreadsProperties,
+                        TokenBucketRateLimiter rateLimiter, ObjectMapper objectMapper,
+                        UserClient userClient, ItemClient itemClient, BookingClient bookingClient,
+                        ItemRequestClient itemRequestClient) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.routes = new BatchRoutes(userClient, itemClient, bookingClient, itemRequestClient);
+        this.executor = VirtualThreads.newExecutor(virtualThreadsProperties.isEnabled(), "shareit-batch-", () -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor platformExecutor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                    60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "shareit-batch-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+            platformExecutor.allowCoreThreadTimeOut(true);
+            return platformExecutor;
+        });
+    }
+
+    public List<BatchSubResponse> execute(Long userId, List<BatchSubRequest> requests) {
+        if (requests.size() > properties.getMaxSubRequests()) {
+            throw new IllegalArgumentException(String.format("Пакет содержит %d запросов, допустимо не более %d",
+                    requests.size(), properties.getMaxSubRequests()));
+        }
+        if (requests.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Пакет содержит пустой подзапрос");
+        }
+        List<CompletableFuture<BatchSubResponse>> responses = new ArrayList<>(requests.size());
+        for (BatchSubRequest request : requests) {
+            responses.add(CompletableFuture.supplyAsync(Span.wrap(() -> executeSubRequest(userId, request)), executor));
+        }
+        return responses.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private BatchSubResponse executeSubRequest(Long userId, BatchSubRequest request) {
+        String method = request.getMethod() == null ? HttpMethod.GET.name() : request.getMethod();
+        if (!HttpMethod.GET.matches(method)) {
+            return error(request, HttpStatus.BAD_REQUEST, "В пакете допустимы только GET-запросы");
+        }
+        String path = request.getPath();
+        if (path == null || !path.startsWith("/")) {
+            return error(request, HttpStatus.BAD_REQUEST, "Недопустимый путь " + path);
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        List<String> segments = segmentsOf(uri.getPath());
+        if (segments == null) {
+            return error(request, HttpStatus.BAD_REQUEST, "Недопустимый путь " + path);
+        }
+        BatchRoutes.Route route = routes.match(segments);
+        if (route == null) {
+            return error(request, HttpStatus.NOT_FOUND, "Неизвестный путь " + path);
+        }
+        try {
+            long waitNanos = rateLimiter.tryAcquire(segments.get(0), userId);
+            if (waitNanos > 0) {
+                throw new TooManyRequestsException(
+                        String.format("Превышен лимит запросов к /%s для пользователя id %s", segments.get(0), userId),
+                        TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            }
+            ResponseEntity<Object> response = route.handle(userId, segments, decode(uri.getQueryParams()));
+            return BatchSubResponse.builder()
+                    .id(request.getId())
+                    .status(response.getStatusCodeValue())
+                    .body(bodyOf(response.getBody()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return error(request, HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (TooManyRequestsException e) {
+            return error(request, HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        } catch (UpstreamUnavailableException e) {
+            return error(request, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Ошибка подзапроса {}: {}", path, e.getMessage());
+            return error(request, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    /**
+     * @return декодированные сегменты пути или null, если среди них есть пустой, «.» или «..»
+     */
+    @Nullable
+    private static List<String> segmentsOf(@Nullable String path) {
+        if (path == null || path.length() < 2) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.substring(1).split("/", -1)) {
+            String decoded = UriUtils.decode(segment, StandardCharsets.UTF_8);
+            if (decoded.isEmpty() || decoded.equals(".") || decoded.equals("..") || decoded.contains("/")) {
+                return null;
+            }
+            segments.add(decoded);
+        }
+        return segments;
+    }
+
+    private static MultiValueMap<String, String> decode(MultiValueMap<String, String> query) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        query.forEach((name, values) -> values.forEach(value -> decoded.add(UriUtils.decode(name, StandardCharsets.UTF_8),
+                value == null ? "" : UriUtils.decode(value, StandardCharsets.UTF_8))));
+        return decoded;
+    }
+
+    private Object bodyOf(Object body) {
+        if (!(body instanceof byte[])) {
+            return body;
+        }
+        byte[] bytes = (byte[]) body;
+        if (bytes.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(bytes);
+        } catch (IOException e) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static BatchSubResponse error(BatchSubRequest request, HttpStatus status, String message) {
+        return BatchSubResponse.builder()
+                .id(request.getId())
+                .status(status.value())
+                .body(new ErrorResponse(message))
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchSubRequest {
+    private String id;
+    private String method;
+    private String path;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchSubResponse {
+    private String id;
+    private int status;
+    private Object body;
+}
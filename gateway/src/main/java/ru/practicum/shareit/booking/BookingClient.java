@@ -1,15 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.StateOfBookingRequest;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CancellableRequestFactory;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
 
 import java.util.Map;
 
@@ -18,17 +20,22 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(ServerPool serverPool, RestTemplateBuilder builder,
+                         ClientResilienceRegistry resilienceRegistry, RequestHedgerRegistry hedgerRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory())
+                        .requestFactory(CancellableRequestFactory::new)
+                        .build(),
+                serverPool,
+                API_PREFIX,
+                resilienceRegistry.forClient("bookings"),
+                hedgerRegistry.forClient("bookings")
         );
     }
 
-    public ResponseEntity<Object> addBooking(Long userId, BookingShortDto bookingShortDto) {
-        return post("", userId, bookingShortDto);
+    public ResponseEntity<Object> addBooking(Long userId, String idempotencyKey, BookingShortDto bookingShortDto) {
+        return postIdempotent("", userId, idempotencyKey, bookingShortDto);
     }
 
     public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
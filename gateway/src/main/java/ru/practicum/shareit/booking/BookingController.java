@@ -7,6 +7,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.StateOfBookingRequest;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.validate.BookingTimeValidator;
 
 import javax.validation.constraints.Positive;
@@ -23,10 +24,12 @@ public class BookingController {
 
     @PostMapping
     public ResponseEntity<Object> createNewBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                   String idempotencyKey,
                                                    @RequestBody final BookingShortDto bookingShortDto) {
         bookingTimeValidator.validateBookingTime(bookingShortDto.getStart(), bookingShortDto.getEnd());
         log.info("Пользователь id {} создал бронирование на вещь id {}", userId, bookingShortDto.getItemId());
-        return bookingClient.addBooking(userId, bookingShortDto);
+        return bookingClient.addBooking(userId, idempotencyKey, bookingShortDto);
     }
 
     @PatchMapping("/{bookingId}")
@@ -1,22 +1,39 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
     protected final RestTemplate rest;
+    private final ServerPool serverPool;
+    private final String apiPrefix;
+    private final ClientResilience resilience;
+    private final RequestHedger hedger;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, ServerPool serverPool, String apiPrefix, ClientResilience resilience,
+                      RequestHedger hedger) {
         this.rest = rest;
+        this.serverPool = serverPool;
+        this.apiPrefix = apiPrefix;
+        this.resilience = resilience;
+        this.hedger = hedger;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -28,7 +45,7 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -40,7 +57,11 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
+    }
+
+    protected <T> ResponseEntity<Object> postIdempotent(String path, long userId, @Nullable String idempotencyKey, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body, idempotencyKey);
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
@@ -48,7 +69,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
     protected <T> ResponseEntity<Object> patch(String path, T body) {
@@ -64,7 +85,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
     protected ResponseEntity<Object> delete(String path) {
@@ -76,32 +97,106 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    /**
+     * Открывает долгий GET-поток к серверу и возвращает ответ непрочитанным; закрыть его должен вызывающий.
+     * Поток не проходит через предохранитель и дублирование: его длительность не говорит о здоровье сервера.
+     * Бесконечный поток нельзя дочитать при закрытии, поэтому прервать его нужно через {@code call}.
+     */
+    protected ClientHttpResponse openStream(String path, @Nullable Long userId, HttpHeaders headers, CancellableCall call)
+            throws IOException {
+        ServerInstance instance = serverPool.choose();
+        call.bindToCurrentThread();
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(URI.create(instance.getUrl() + apiPrefix + path), HttpMethod.GET);
+            if (userId != null) {
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            }
+            request.getHeaders().addAll(headers);
+            return request.execute();
+        } finally {
+            call.unbindFromCurrentThread();
+        }
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                         @Nullable String idempotencyKey) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, idempotencyKey));
+
+        resilience.acquirePermission();
+        long startNanos = System.nanoTime();
+        boolean failed = true;
+        try {
+            ResponseEntity<Object> shareitServerResponse;
+            if (method == HttpMethod.GET && hedger.isEnabled()) {
+                shareitServerResponse = hedger.execute(serverPool, (instance, call) ->
+                        exchange(instance, call, method, path, requestEntity, parameters));
+            } else {
+                shareitServerResponse = exchange(serverPool.choose(), null, method, path, requestEntity, parameters);
+            }
+            failed = shareitServerResponse.getStatusCode().is5xxServerError();
+            return shareitServerResponse;
+        } finally {
+            resilience.onCallFinished(failed, System.nanoTime() - startNanos);
+        }
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Object> exchange(ServerInstance instance, @Nullable CancellableCall call, HttpMethod method,
+                                                String path, HttpEntity<T> requestEntity,
+                                                @Nullable Map<String, Object> parameters) {
+        String url = instance.getUrl() + apiPrefix + path;
+        boolean failed = true;
+        String status = "IO_ERROR";
+        long startNanos = System.nanoTime();
+        instance.requestStarted();
         try {
+            ResponseEntity<Object> shareitServerResponse;
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(url, method, requestEntity, Object.class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(url, method, requestEntity, Object.class);
             }
+            failed = shareitServerResponse.getStatusCode().is5xxServerError();
+            status = String.valueOf(shareitServerResponse.getStatusCodeValue());
+            return prepareGatewayResponse(shareitServerResponse);
         } catch (HttpStatusCodeException e) {
+            failed = e.getStatusCode().is5xxServerError();
+            status = String.valueOf(e.getRawStatusCode());
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        } finally {
+            instance.requestFinished();
+            boolean cancelled = call != null && call.isCancelled();
+            resilience.recordUpstreamCall(method.name(), uriTag(apiPrefix, path), cancelled ? "CANCELLED" : status,
+                    System.nanoTime() - startNanos);
+            if (!cancelled) {
+                if (failed) {
+                    serverPool.onFailure(instance);
+                } else {
+                    serverPool.onSuccess(instance);
+                }
+            }
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    static String uriTag(String apiPrefix, String path) {
+        int query = path.indexOf('?');
+        String route = apiPrefix + (query < 0 ? path : path.substring(0, query));
+        return ID_SEGMENT.matcher(route).replaceAll("/{id}");
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String idempotencyKey) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (idempotencyKey != null) {
+            headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
         return headers;
     }
 
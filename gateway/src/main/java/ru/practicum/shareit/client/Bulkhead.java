@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.Semaphore;
+
+class Bulkhead {
+    private final int maxConcurrentCalls;
+    private final Semaphore permits;
+
+    Bulkhead(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    int getAvailable() {
+        return permits.availablePermits();
+    }
+}
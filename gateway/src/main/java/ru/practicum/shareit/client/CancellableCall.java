@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+/**
+ * Одна попытка обращения к серверу. {@link CancellableRequestFactory} привязывает к ней запрос HttpClient,
+ * созданный в потоке попытки, поэтому {@link #cancel()} из другого потока обрывает соединение.
+ */
+public class CancellableCall {
+    private static final ThreadLocal<CancellableCall> CURRENT = new ThreadLocal<>();
+
+    private HttpUriRequest request;
+    private boolean cancelled;
+
+    static CancellableCall current() {
+        return CURRENT.get();
+    }
+
+    void bindToCurrentThread() {
+        CURRENT.set(this);
+    }
+
+    void unbindFromCurrentThread() {
+        CURRENT.remove();
+    }
+
+    synchronized void attach(HttpUriRequest request) {
+        this.request = request;
+        if (cancelled) {
+            request.abort();
+        }
+    }
+
+    public synchronized void cancel() {
+        cancelled = true;
+        if (request != null) {
+            request.abort();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+
+public class CancellableRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    @Override
+    protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+        CancellableCall call = CancellableCall.current();
+        if (call != null) {
+            call.attach(request);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Автоматический выключатель по числу вызовов. В CLOSED он следит за исходом последних {@code slidingWindowSize}
+ * вызовов и размыкается, когда доля ошибок превышает порог; в OPEN отклоняет вызовы, пока не пройдёт
+ * {@code openDuration}, затем пропускает ограниченное число пробных вызовов HALF_OPEN. Неудачная проба снова
+ * размыкает цепь, достаточное число успешных замыкает её.
+ */
+class CircuitBreaker {
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final ClientResilienceProperties.Policy policy;
+    private final LongSupplier clock;
+    private final TransitionListener listener;
+    private final boolean[] window;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCalls;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenCallsStarted;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(ClientResilienceProperties.Policy policy, LongSupplier clock, TransitionListener listener) {
+        this.policy = policy;
+        this.clock = clock;
+        this.listener = listener;
+        this.window = new boolean[Math.max(1, policy.getSlidingWindowSize())];
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAtNanos < policy.getOpenDuration().toNanos()) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenCallsStarted >= policy.getHalfOpenPermittedCalls()) {
+                return false;
+            }
+            halfOpenCallsStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onResult(boolean failure) {
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSuccesses >= policy.getHalfOpenPermittedCalls()) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (recordedCalls == window.length) {
+            if (window[windowPosition]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            failedCalls++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+        if (recordedCalls >= policy.getMinimumCalls()
+                && failedCalls * 100 >= policy.getFailureRateThreshold() * recordedCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized long remainingOpenNanos() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, policy.getOpenDuration().toNanos() - (clock.getAsLong() - openedAtNanos));
+    }
+
+    synchronized int getFailureRate() {
+        return recordedCalls == 0 ? 0 : failedCalls * 100 / recordedCalls;
+    }
+
+    private void transitionTo(State newState) {
+        State oldState = state;
+        state = newState;
+        windowPosition = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+        halfOpenCallsStarted = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = clock.getAsLong();
+        }
+        listener.onTransition(oldState, newState);
+    }
+}
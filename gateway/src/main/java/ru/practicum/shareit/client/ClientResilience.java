@@ -0,0 +1,123 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.error.UpstreamUnavailableException;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+@Slf4j
+public class ClientResilience {
+    private static final int TRANSITION_HISTORY_SIZE = 20;
+
+    private final String name;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long slowCallNanos;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final MeterRegistry meterRegistry;
+    private final Deque<String> transitions = new ArrayDeque<>();
+
+    ClientResilience(String name, ClientResilienceProperties.Policy policy, MeterRegistry meterRegistry,
+                     LongSupplier clock) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Bulkhead(policy.getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(policy, clock, this::onTransition);
+        this.slowCallNanos = policy.getSlowCallThreshold().toNanos();
+        this.bulkheadRejections = Counter.builder("shareit.client.rejections")
+                .tag("client", name).tag("reason", "bulkhead_full").register(meterRegistry);
+        this.circuitRejections = Counter.builder("shareit.client.rejections")
+                .tag("client", name).tag("reason", "circuit_open").register(meterRegistry);
+        Gauge.builder("shareit.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("client", name)
+                .description("0 - closed, 1 - open, 2 - half-open")
+                .register(meterRegistry);
+        Gauge.builder("shareit.client.bulkhead.available", bulkhead, Bulkhead::getAvailable)
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * После завершения вызова сервера должен следовать {@link #onCallFinished(boolean, long)}.
+     */
+    public void acquirePermission() {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            throw new UpstreamUnavailableException(
+                    String.format("Сервис %s перегружен: превышено число одновременных запросов", name), 1);
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            circuitRejections.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.remainingOpenNanos()));
+            throw new UpstreamUnavailableException(
+                    String.format("Сервис %s временно недоступен: автоматический выключатель разомкнут", name),
+                    retryAfterSeconds);
+        }
+    }
+
+    public void onCallFinished(boolean failed, long elapsedNanos) {
+        try {
+            circuitBreaker.onResult(failed || elapsedNanos >= slowCallNanos);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Учитывает одну попытку обращения к серверу, включая страхующие; uri — шаблон маршрута, например /bookings/{id}.
+     */
+    public void recordUpstreamCall(String method, String uri, String status, long elapsedNanos) {
+        Timer.builder("shareit.client.requests")
+                .description("Upstream calls from the gateway to shareit-server")
+                .tag("client", name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public ClientResilienceSnapshot snapshot() {
+        List<String> recentTransitions;
+        synchronized (transitions) {
+            recentTransitions = new ArrayList<>(transitions);
+        }
+        return ClientResilienceSnapshot.builder()
+                .state(circuitBreaker.getState().name())
+                .failureRate(circuitBreaker.getFailureRate())
+                .maxConcurrentCalls(bulkhead.getMaxConcurrentCalls())
+                .availableConcurrentCalls(bulkhead.getAvailable())
+                .rejectedByBulkhead((long) bulkheadRejections.count())
+                .rejectedByCircuitBreaker((long) circuitRejections.count())
+                .recentTransitions(recentTransitions)
+                .build();
+    }
+
+    CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        log.warn("Автоматический выключатель клиента {}: {} -> {}", name, from, to);
+        meterRegistry.counter("shareit.client.circuit.transitions", "client", name, "from", from.name(), "to", to.name())
+                .increment();
+        synchronized (transitions) {
+            if (transitions.size() == TRANSITION_HISTORY_SIZE) {
+                transitions.removeFirst();
+            }
+            transitions.addLast(Instant.now() + " " + from + " -> " + to);
+        }
+    }
+}
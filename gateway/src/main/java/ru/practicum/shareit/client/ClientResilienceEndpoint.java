@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "clients")
+@RequiredArgsConstructor
+public class ClientResilienceEndpoint {
+    private final ClientResilienceRegistry registry;
+
+    @ReadOperation
+    public Map<String, ClientResilienceSnapshot> clients() {
+        return registry.snapshot();
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.client")
+public class ClientResilienceProperties {
+    private static final String DEFAULT_POLICY = "default";
+
+    private Map<String, Policy> resilience = new HashMap<>();
+
+    public Policy policyFor(String client) {
+        return resilience.getOrDefault(client, resilience.getOrDefault(DEFAULT_POLICY, new Policy()));
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private int maxConcurrentCalls = 20;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenPermittedCalls = 3;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(ClientResilienceProperties.class)
+public class ClientResilienceRegistry {
+    private final ClientResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ClientResilience> clients = new ConcurrentHashMap<>();
+
+    public ClientResilience forClient(String name) {
+        return clients.computeIfAbsent(name,
+                client -> new ClientResilience(client, properties.policyFor(client), meterRegistry, System::nanoTime));
+    }
+
+    public Map<String, ClientResilienceSnapshot> snapshot() {
+        Map<String, ClientResilienceSnapshot> snapshot = new TreeMap<>();
+        clients.forEach((name, resilience) -> snapshot.put(name, resilience.snapshot()));
+        return snapshot;
+    }
+}
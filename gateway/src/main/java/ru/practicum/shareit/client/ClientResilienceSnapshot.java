@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ClientResilienceSnapshot {
+    private String state;
+    private int failureRate;
+    private int maxConcurrentCalls;
+    private int availableConcurrentCalls;
+    private long rejectedByBulkhead;
+    private long rejectedByCircuitBreaker;
+    private List<String> recentTransitions;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Каждый запрос приносит {@code budgetPercent} сотых страховки, а страховка тратит целую, поэтому страховки
+ * не превышают этой доли трафика, как бы ни замедлялся сервер. Небольшой потолок ограничивает всплески страховок.
+ */
+class HedgeBudget {
+    private static final long HEDGE_COST = 100;
+    private static final long MAX_CREDIT = 10 * HEDGE_COST;
+
+    private final long creditPerRequest;
+    private final AtomicLong credit = new AtomicLong();
+
+    HedgeBudget(int budgetPercent) {
+        this.creditPerRequest = budgetPercent;
+    }
+
+    void onRequest() {
+        credit.getAndUpdate(current -> Math.min(MAX_CREDIT, current + creditPerRequest));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            long current = credit.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (credit.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+}
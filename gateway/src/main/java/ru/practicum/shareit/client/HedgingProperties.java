@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.client.hedging")
+public class HedgingProperties {
+    private boolean enabled = false;
+    private Set<String> clients = new HashSet<>();
+    private int percentile = 95;
+    private Duration initialDelay = Duration.ofMillis(200);
+    private Duration minDelay = Duration.ofMillis(10);
+    private int sampleSize = 1000;
+    private int minSamples = 100;
+    private int budgetPercent = 5;
+    private int threads = 64;
+
+    public boolean isEnabledFor(String client) {
+        return enabled && (clients.isEmpty() || clients.contains(client));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Хранит последние задержки в кольцевом буфере и пересчитывает перцентиль раз в десятую часть окна,
+ * поэтому чтение текущей задержки страховки — одно чтение volatile-поля.
+ */
+class LatencyTracker {
+    private final AtomicLongArray samples;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final int percentile;
+    private final int refreshEvery;
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(int sampleSize, int percentile) {
+        this.samples = new AtomicLongArray(Math.max(1, sampleSize));
+        this.percentile = percentile;
+        this.refreshEvery = Math.max(1, sampleSize / 10);
+    }
+
+    void record(long latencyNanos) {
+        int index = recorded.getAndIncrement();
+        samples.set(Math.floorMod(index, samples.length()), latencyNanos);
+        if ((index + 1) % refreshEvery == 0) {
+            refresh(Math.min(index + 1, samples.length()));
+        }
+    }
+
+    int count() {
+        return Math.min(recorded.get(), samples.length());
+    }
+
+    /**
+     * @return перцентиль по текущему окну или -1 до первого пересчёта
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void refresh(int filled) {
+        long[] snapshot = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            snapshot[i] = samples.get(i);
+        }
+        Arrays.sort(snapshot);
+        int rank = (int) Math.ceil(percentile / 100d * filled) - 1;
+        percentileNanos = snapshot[Math.max(0, Math.min(filled - 1, rank))];
+    }
+}
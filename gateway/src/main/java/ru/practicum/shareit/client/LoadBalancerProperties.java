@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.load-balancer")
+public class LoadBalancerProperties {
+    private String healthPath = "/actuator/health";
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+    private int consecutiveFailuresToEject = 5;
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+    private int maxEjectionPercent = 50;
+}
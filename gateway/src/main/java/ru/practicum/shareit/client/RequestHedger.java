@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.tracing.Span;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Страхует идемпотентные чтения: если первая попытка не ответила за наблюдаемый перцентиль задержки,
+ * вторая уходит на другой доступный экземпляр, побеждает первый ответ, а другая попытка прерывается.
+ * Страховки ограничены {@link HedgeBudget}, поэтому не умножают нагрузку на и так медленный сервер.
+ */
+public class RequestHedger {
+    interface Attempt<R> {
+        R run(ServerInstance instance, CancellableCall call);
+    }
+
+    private final boolean enabled;
+    private final Executor executor;
+    private final LatencyTracker latencyTracker;
+    private final HedgeBudget budget;
+    private final int minSamples;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    RequestHedger(String client, HedgingProperties properties, Executor executor, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabledFor(client);
+        this.executor = executor;
+        this.latencyTracker = new LatencyTracker(properties.getSampleSize(), properties.getPercentile());
+        this.budget = new HedgeBudget(properties.getBudgetPercent());
+        this.minSamples = properties.getMinSamples();
+        this.initialDelayNanos = properties.getInitialDelay().toNanos();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.hedgesSent = meterRegistry.counter("shareit.client.hedges", "client", client, "result", "sent");
+        this.hedgesWon = meterRegistry.counter("shareit.client.hedges", "client", client, "result", "won");
+        this.hedgesDenied = meterRegistry.counter("shareit.client.hedges", "client", client, "result", "denied");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    <R> R execute(ServerPool serverPool, Attempt<R> attempt) {
+        budget.onRequest();
+        ServerInstance primary = serverPool.choose();
+        CancellableCall primaryCall = new CancellableCall();
+        CompletableFuture<R> primaryFuture = submit(primary, primaryCall, attempt);
+        if (primaryFuture == null) {
+            return attempt.run(primary, null);
+        }
+        CancellableCall hedgeCall = null;
+        CompletableFuture<R> hedgeFuture = null;
+        try {
+            try {
+                return primaryFuture.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                ServerInstance secondary = serverPool.chooseAvailable(List.of(primary));
+                if (secondary == null) {
+                    return primaryFuture.get();
+                }
+                if (!budget.tryAcquire()) {
+                    hedgesDenied.increment();
+                    return primaryFuture.get();
+                }
+                hedgeCall = new CancellableCall();
+                hedgeFuture = submit(secondary, hedgeCall, attempt);
+                if (hedgeFuture == null) {
+                    return primaryFuture.get();
+                }
+                hedgesSent.increment();
+                return firstSuccessful(primaryFuture, hedgeFuture).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание ответа сервера прервано", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            if (!primaryFuture.isDone()) {
+                primaryCall.cancel();
+            }
+            if (hedgeFuture != null && !hedgeFuture.isDone()) {
+                hedgeCall.cancel();
+            }
+        }
+    }
+
+    long hedgeDelayNanos() {
+        long percentileNanos = latencyTracker.count() >= minSamples ? latencyTracker.percentileNanos() : -1;
+        return Math.max(minDelayNanos, percentileNanos < 0 ? initialDelayNanos : percentileNanos);
+    }
+
+    private <R> CompletableFuture<R> submit(ServerInstance instance, CancellableCall call, Attempt<R> attempt) {
+        try {
+            return CompletableFuture.supplyAsync(Span.wrap(() -> {
+                long startNanos = System.nanoTime();
+                call.bindToCurrentThread();
+                try {
+                    R result = attempt.run(instance, call);
+                    if (!call.isCancelled()) {
+                        latencyTracker.record(System.nanoTime() - startNanos);
+                    }
+                    return result;
+                } finally {
+                    call.unbindFromCurrentThread();
+                }
+            }), executor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <R> CompletableFuture<R> firstSuccessful(CompletableFuture<R> primary, CompletableFuture<R> hedge) {
+        CompletableFuture<R> winner = new CompletableFuture<>();
+        AtomicBoolean decided = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((result, error) -> {
+            if (error == null) {
+                if (decided.compareAndSet(false, true)) {
+                    winner.complete(result);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((result, error) -> {
+            if (error == null) {
+                if (decided.compareAndSet(false, true)) {
+                    hedgesWon.increment();
+                    winner.complete(result);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        return winner;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof ExecutionException || cause instanceof CompletionException) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
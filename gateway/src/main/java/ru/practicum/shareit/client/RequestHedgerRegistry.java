@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.threads.VirtualThreads;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@EnableConfigurationProperties(HedgingProperties.class)
+public class RequestHedgerRegistry {
+    private final HedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final Map<String, RequestHedger> hedgers = new ConcurrentHashMap<>();
+
+    public RequestHedgerRegistry(HedgingProperties properties, VirtualThreadsProperties virtualThreadsProperties,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = VirtualThreads.newExecutor(virtualThreadsProperties.isEnabled(), "shareit-hedged-read-", () -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor platformExecutor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                    60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "shareit-hedged-read-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            platformExecutor.allowCoreThreadTimeOut(true);
+            return platformExecutor;
+        });
+    }
+
+    public RequestHedger forClient(String name) {
+        return hedgers.computeIfAbsent(name, client -> new RequestHedger(client, properties, executor, meterRegistry));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerInstance {
+    private final String url;
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntilNanos;
+    private volatile boolean ejected;
+    private int ejectionCount;
+
+    ServerInstance(String url) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getOutstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    boolean isAvailable(long nowNanos) {
+        if (ejected && nowNanos - ejectedUntilNanos >= 0) {
+            ejected = false;
+        }
+        return healthy && !ejected;
+    }
+
+    boolean isEjected() {
+        return ejected;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void requestStarted() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    void requestFinished() {
+        outstandingRequests.decrementAndGet();
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    int recordFailure() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Каждое исключение длиннее предыдущего на baseEjectionNanos, но каждый отрезок baseEjectionNanos без исключения
+     * с конца прошлого сбрасывает одно из них, поэтому давно работающий без сбоев сервер снова исключается ненадолго.
+     */
+    synchronized void eject(long nowNanos, long baseEjectionNanos, long maxEjectionNanos) {
+        if (ejectionCount > 0 && baseEjectionNanos > 0 && nowNanos - ejectedUntilNanos > 0) {
+            long quietIntervals = (nowNanos - ejectedUntilNanos) / baseEjectionNanos;
+            ejectionCount = (int) Math.max(0, ejectionCount - quietIntervals);
+        }
+        ejectionCount++;
+        long ejectionNanos = Math.min(maxEjectionNanos, baseEjectionNanos * ejectionCount);
+        ejectedUntilNanos = nowNanos + ejectionNanos;
+        ejected = true;
+        consecutiveFailures.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Балансировщик на стороне клиента между экземплярами shareit-server из {@code shareit-server.url}.
+ * Выбирает доступный экземпляр с наименьшим числом выполняющихся запросов; экземпляр недоступен, пока
+ * не проходит проверку здоровья actuator или исключён после нескольких неудачных запросов подряд.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+public class ServerPool {
+    private final List<ServerInstance> instances;
+    private final LoadBalancerProperties properties;
+    private final RestTemplate healthRest;
+    private final LongSupplier clock;
+    private ScheduledExecutorService healthChecker;
+
+    @Autowired
+    public ServerPool(@Value("${shareit-server.url}") List<String> urls, LoadBalancerProperties properties,
+                      RestTemplateBuilder builder) {
+        this(urls, properties, builder
+                .setConnectTimeout(properties.getHealthCheckTimeout())
+                .setReadTimeout(properties.getHealthCheckTimeout())
+                .build(), System::nanoTime);
+    }
+
+    ServerPool(List<String> urls, LoadBalancerProperties properties, RestTemplate healthRest, LongSupplier clock) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("Не задан ни один адрес shareit-server.url");
+        }
+        this.instances = urls.stream()
+                .map(String::trim)
+                .map(ServerInstance::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.properties = properties;
+        this.healthRest = healthRest;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void startHealthChecks() {
+        long intervalMillis = properties.getHealthCheckInterval().toMillis();
+        if (instances.size() < 2 || intervalMillis <= 0) {
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shareit-server-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopHealthChecks() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    public ServerInstance choose() {
+        return choose(Collections.emptySet());
+    }
+
+    /**
+     * Выбирает наименее загруженный из доступных экземпляров не из {@code excluded}. Если доступных нет,
+     * выбирает из всего пула, чтобы отказ всего пула приводил к ошибкам запросов, а не к отказу их отправлять.
+     */
+    public ServerInstance choose(Collection<ServerInstance> excluded) {
+        long now = clock.getAsLong();
+        ServerInstance chosen = leastOutstanding(now, excluded, true);
+        if (chosen == null) {
+            chosen = leastOutstanding(now, excluded, false);
+        }
+        return chosen;
+    }
+
+    /**
+     * @return наименее загруженный доступный экземпляр не из {@code excluded} или null, если такого нет
+     */
+    public ServerInstance chooseAvailable(Collection<ServerInstance> excluded) {
+        return leastOutstanding(clock.getAsLong(), excluded, true);
+    }
+
+    public List<ServerInstance> getInstances() {
+        return instances;
+    }
+
+    public void onSuccess(ServerInstance instance) {
+        instance.recordSuccess();
+    }
+
+    public void onFailure(ServerInstance instance) {
+        if (instance.recordFailure() < properties.getConsecutiveFailuresToEject() || instances.size() < 2) {
+            return;
+        }
+        synchronized (this) {
+            long now = clock.getAsLong();
+            long ejected = instances.stream().filter(candidate -> !candidate.isAvailable(now)).count();
+            if ((ejected + 1) * 100 > (long) properties.getMaxEjectionPercent() * instances.size()) {
+                return;
+            }
+            instance.eject(now, properties.getBaseEjectionTime().toNanos(), properties.getMaxEjectionTime().toNanos());
+        }
+        log.warn("Сервер {} исключен из балансировки после {} ошибок подряд", instance,
+                properties.getConsecutiveFailuresToEject());
+    }
+
+    void checkHealth() {
+        for (ServerInstance instance : instances) {
+            boolean healthy;
+            try {
+                Map<?, ?> health = healthRest.getForObject(instance.getUrl() + properties.getHealthPath(), Map.class);
+                healthy = health != null && "UP".equals(health.get("status"));
+            } catch (RestClientException e) {
+                healthy = false;
+            }
+            if (healthy != instance.isHealthy()) {
+                log.warn("Сервер {} {}", instance, healthy ? "снова доступен" : "не прошел проверку здоровья");
+            }
+            instance.setHealthy(healthy);
+        }
+    }
+
+    private ServerInstance leastOutstanding(long now, Collection<ServerInstance> excluded, boolean availableOnly) {
+        int size = instances.size();
+        int offset = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+        ServerInstance best = null;
+        for (int i = 0; i < size; i++) {
+            ServerInstance candidate = instances.get((offset + i) % size);
+            if (excluded.contains(candidate) || (availableOnly && !candidate.isAvailable(now))) {
+                continue;
+            }
+            if (best == null || candidate.getOutstandingRequests() < best.getOutstandingRequests()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.error;
+
+import lombok.Getter;
+
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,13 +1,15 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CancellableRequestFactory;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -18,17 +20,22 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(ServerPool serverPool, RestTemplateBuilder builder,
+                      ClientResilienceRegistry resilienceRegistry, RequestHedgerRegistry hedgerRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory())
+                        .requestFactory(CancellableRequestFactory::new)
+                        .build(),
+                serverPool,
+                API_PREFIX,
+                resilienceRegistry.forClient("items"),
+                hedgerRegistry.forClient("items")
         );
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public ResponseEntity<Object> addItem(Long userId, String idempotencyKey, ItemDto itemDto) {
+        return postIdempotent("", userId, idempotencyKey, itemDto);
     }
 
     public ResponseEntity<Object> updateItem(Long userId, ItemDto itemDto, Long itemId) {
@@ -57,7 +64,7 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> createItemComment(CommentShortDto commentShortDto,
-                                                    Long itemId, Long userId) {
-        return post("/" + itemId + "/comment", userId, commentShortDto);
+                                                    Long itemId, Long userId, String idempotencyKey) {
+        return postIdempotent("/" + itemId + "/comment", userId, idempotencyKey, commentShortDto);
     }
 }
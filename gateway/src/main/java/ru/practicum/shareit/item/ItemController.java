@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validate.Create;
@@ -25,9 +26,11 @@ public class ItemController {
 
     @PostMapping
     public ResponseEntity<Object> createNewItem(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                                @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                String idempotencyKey,
                                                 @RequestBody @Validated(Create.class) ItemDto itemDto) {
         log.info("Пользователь id {} создал вещь {}", userId, itemDto.getName());
-        return itemClient.addItem(userId, itemDto);
+        return itemClient.addItem(userId, idempotencyKey, itemDto);
     }
 
     @PatchMapping("/{itemId}")
@@ -72,8 +75,10 @@ public class ItemController {
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> createItemComment(@RequestBody @Valid final CommentShortDto commentShortDto,
                                                     @PathVariable final Long itemId,
-                                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                                    @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestHeader(value = BaseClient.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                    String idempotencyKey) {
         log.info("Пользователь id {} добавил комментарий к вещи id {}", userId, itemId);
-        return itemClient.createItemComment(commentShortDto, itemId, userId);
+        return itemClient.createItemComment(commentShortDto, itemId, userId, idempotencyKey);
     }
 }
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.error.TooManyRequestsException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = parseUserId(request.getHeader(USER_ID_HEADER));
+        if (userId == null) {
+            return true;
+        }
+        String route = routeOf(request.getRequestURI());
+        long waitNanos = rateLimiter.tryAcquire(route, userId);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new TooManyRequestsException(
+                    String.format("Превышен лимит запросов к /%s для пользователя id %s", route, userId),
+                    retryAfterSeconds);
+        }
+        return true;
+    }
+
+    static String routeOf(String uri) {
+        int start = uri.startsWith("/") ? 1 : 0;
+        int end = uri.indexOf('/', start);
+        return end < 0 ? uri.substring(start) : uri.substring(start, end);
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int stripes = 16;
+    private int maxUsers = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Budget defaultBudget = new Budget();
+    private Map<String, Budget> routes = new HashMap<>();
+
+    public Budget budgetFor(String route) {
+        return routes.getOrDefault(route, defaultBudget);
+    }
+
+    @Getter
+    @Setter
+    public static class Budget {
+        private int capacity = 50;
+        private double refillPerSecond = 20;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок в форме GCRA: всё состояние — одно «теоретическое время прибытия»,
+ * поэтому взятие токена — один CAS, а простаивающая корзина не отличается от новой.
+ */
+class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1L, Math.round(1_000_000_000d / refillPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0, если токен взят, иначе число наносекунд до появления следующего токена
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long next = base + emissionIntervalNanos;
+            long excess = next - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() >= idleNanos;
+    }
+}
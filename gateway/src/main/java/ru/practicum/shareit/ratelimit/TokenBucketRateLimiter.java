@@ -0,0 +1,112 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+@Component
+@Slf4j
+public class TokenBucketRateLimiter {
+    private static final long SHED_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * Маршруты API шлюза. Первый сегмент пути приходит от клиента, поэтому корзины заводятся только
+     * для этих маршрутов и маршрутов из настроек, а все остальные пути делят одну общую корзину.
+     */
+    private static final Set<String> KNOWN_ROUTES = Set.of("users", "items", "bookings", "requests", "batch");
+    static final String OTHER_ROUTE = "*";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier clock;
+    private final Map<String, RouteBuckets> routes;
+
+    @Autowired
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(RateLimitProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        Set<String> names = new HashSet<>(KNOWN_ROUTES);
+        names.addAll(properties.getRoutes().keySet());
+        names.add(OTHER_ROUTE);
+        Map<String, RouteBuckets> buckets = new HashMap<>();
+        for (String name : names) {
+            buckets.put(name, new RouteBuckets(name));
+        }
+        this.routes = Map.copyOf(buckets);
+    }
+
+    /**
+     * @return 0, если вызов разрешён, иначе сколько наносекунд подождать перед повтором
+     */
+    public long tryAcquire(String route, long userId) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        return routes.getOrDefault(route, routes.get(OTHER_ROUTE)).tryAcquire(userId, clock.getAsLong());
+    }
+
+    int trackedRoutes() {
+        return routes.size();
+    }
+
+    int trackedUsers(String route) {
+        RouteBuckets buckets = routes.get(route);
+        return buckets == null ? 0 : buckets.size();
+    }
+
+    private class RouteBuckets {
+        private final String route;
+        private final RateLimitProperties.Budget budget;
+        private final ConcurrentHashMap<Long, TokenBucket>[] stripes;
+        private final int stripeCapacity;
+        private final long idleNanos;
+
+        @SuppressWarnings("unchecked")
+        RouteBuckets(String route) {
+            int stripeCount = Math.max(1, properties.getStripes());
+            this.route = route;
+            this.budget = properties.budgetFor(route);
+            this.stripes = new ConcurrentHashMap[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new ConcurrentHashMap<>();
+            }
+            this.stripeCapacity = Math.max(1, properties.getMaxUsers() / stripeCount);
+            this.idleNanos = properties.getIdleTimeout().toNanos();
+        }
+
+        long tryAcquire(long userId, long now) {
+            ConcurrentHashMap<Long, TokenBucket> stripe = stripes[Math.floorMod(Long.hashCode(userId), stripes.length)];
+            TokenBucket bucket = stripe.get(userId);
+            if (bucket == null) {
+                if (stripe.size() >= stripeCapacity) {
+                    stripe.values().removeIf(candidate -> candidate.isIdle(now, idleNanos));
+                    if (stripe.size() >= stripeCapacity) {
+                        log.warn("Превышен лимит отслеживаемых пользователей для маршрута {}, запрос отклонен", route);
+                        return SHED_RETRY_NANOS;
+                    }
+                }
+                bucket = stripe.computeIfAbsent(userId,
+                        id -> new TokenBucket(budget.getCapacity(), budget.getRefillPerSecond(), now));
+            }
+            return bucket.tryAcquire(now);
+        }
+
+        int size() {
+            int size = 0;
+            for (ConcurrentHashMap<Long, TokenBucket> stripe : stripes) {
+                size += stripe.size();
+            }
+            return size;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CancellableCall;
+import ru.practicum.shareit.client.CancellableRequestFactory;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,12 +27,17 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(ServerPool serverPool, RestTemplateBuilder builder,
+                             ClientResilienceRegistry resilienceRegistry, RequestHedgerRegistry hedgerRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory())
+                        .requestFactory(CancellableRequestFactory::new)
+                        .build(),
+                serverPool,
+                API_PREFIX,
+                resilienceRegistry.forClient("requests"),
+                hedgerRegistry.forClient("requests")
         );
     }
 
@@ -30,11 +45,11 @@ public class ItemRequestClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
-    ResponseEntity<Object> getUserRequests(Long userId) {
+    public ResponseEntity<Object> getUserRequests(Long userId) {
         return get("", userId);
     }
 
-    ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,7 +57,29 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
+    public ResponseEntity<Object> getAllRequests(Long userId, LocalDateTime afterCreated, Long afterId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "afterCreated", afterCreated,
+                "afterId", afterId,
+                "size", size
+        );
+        return get("/all?afterCreated={afterCreated}&afterId={afterId}&size={size}", userId, parameters);
+    }
+
+    /**
+     * @param path путь ленты относительно /requests
+     */
+    ClientHttpResponse openFeed(String path, Long userId, @Nullable String lastEventId, CancellableCall call)
+            throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        if (lastEventId != null) {
+            headers.set("Last-Event-ID", lastEventId);
+        }
+        return openStream(path, userId, headers, call);
+    }
+
+    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
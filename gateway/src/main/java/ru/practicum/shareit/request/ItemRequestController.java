@@ -2,14 +2,18 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 
 @RestController
@@ -19,6 +23,7 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 public class ItemRequestController {
     private final ItemRequestClient requestClient;
+    private final RequestFeedProxy requestFeedProxy;
 
     @PostMapping
     public ResponseEntity<Object> createNewRequest(@RequestHeader("X-Sharer-User-Id") final Long userId,
@@ -40,11 +45,32 @@ public class ItemRequestController {
                                                  final Integer from,
                                                  @RequestParam(value = "size", defaultValue = "10")
                                                      @Positive(message = "Значение 'size' должно быть положительным")
-                                                     final Integer size) {
+                                                     final Integer size,
+                                                 @RequestParam(value = "afterCreated", required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 final LocalDateTime afterCreated,
+                                                 @RequestParam(value = "afterId", required = false) final Long afterId) {
         log.info("Получены все запросы пользователем id {}", userId);
+        if (afterCreated != null && afterId != null) {
+            return requestClient.getAllRequests(userId, afterCreated, afterId, size);
+        }
         return requestClient.getAllRequests(userId, from, size);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamRequests(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                                              @RequestHeader(value = "Last-Event-ID", required = false)
+                                                              final String lastEventId) {
+        return requestFeedProxy.open("/stream", userId, lastEventId);
+    }
+
+    @GetMapping(path = "/responses/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamResponses(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                                               @RequestHeader(value = "Last-Event-ID", required = false)
+                                                               final String lastEventId) {
+        return requestFeedProxy.open("/responses/stream", userId, lastEventId);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                                  @PathVariable final Long requestId) {
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.request-feed")
+public class RequestFeedProperties {
+    /**
+     * Сколько лент может быть открыто одновременно: каждая занимает поток, читающий поток сервера.
+     */
+    private int maxStreams = 200;
+    private Duration timeout = Duration.ofMinutes(30);
+}
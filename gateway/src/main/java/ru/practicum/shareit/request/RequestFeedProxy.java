@@ -0,0 +1,113 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.client.CancellableCall;
+import ru.practicum.shareit.error.UpstreamUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Передаёт клиенту SSE-ленты сервера как есть, байт в байт. Отключение клиента прерывает соединение
+ * с сервером, а обрыв потока сервера завершает ответ, чтобы клиент переподключился с Last-Event-ID.
+ */
+@Service
+@Slf4j
+@EnableConfigurationProperties(RequestFeedProperties.class)
+public class RequestFeedProxy {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ItemRequestClient requestClient;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    public RequestFeedProxy(ItemRequestClient requestClient, RequestFeedProperties properties) {
+        this.requestClient = requestClient;
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, properties.getMaxStreams(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "request-feed-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @param path путь ленты относительно /requests
+     */
+    public ResponseEntity<ResponseBodyEmitter> open(String path, Long userId, @Nullable String lastEventId) {
+        CancellableCall call = new CancellableCall();
+        ClientHttpResponse upstream;
+        HttpStatus status;
+        try {
+            upstream = requestClient.openFeed(path, userId, lastEventId, call);
+            status = upstream.getStatusCode();
+        } catch (IOException e) {
+            throw new UpstreamUnavailableException("Лента " + path + " недоступна: " + e.getMessage(), 1);
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        MediaType contentType = upstream.getHeaders().getContentType();
+        if (!status.is2xxSuccessful()) {
+            try (upstream) {
+                emitter.send(StreamUtils.copyToByteArray(upstream.getBody()), contentType);
+            } catch (IOException e) {
+                log.debug("Не удалось прочитать ответ сервера на подписку: {}", e.getMessage());
+            }
+            emitter.complete();
+            return ResponseEntity.status(status).contentType(contentType).body(emitter);
+        }
+        emitter.onCompletion(call::cancel);
+        emitter.onTimeout(call::cancel);
+        emitter.onError(error -> call.cancel());
+        try {
+            executor.execute(() -> pump(upstream, call, emitter));
+        } catch (RejectedExecutionException e) {
+            call.cancel();
+            throw new UpstreamUnavailableException("Открыто слишком много лент", 5);
+        }
+        log.info("Пользователь id {} подписан на ленту {}", userId, path);
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void pump(ClientHttpResponse upstream, CancellableCall call, ResponseBodyEmitter emitter) {
+        try (InputStream body = upstream.getBody()) {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                emitter.send(Arrays.copyOf(buffer, read), MediaType.TEXT_EVENT_STREAM);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Лента закрыта: {}", e.getMessage());
+        } finally {
+            call.cancel();
+            upstream.close();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+@Slf4j
+public class VirtualThreadsConfig {
+    private ExecutorService tomcatExecutor;
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        if (!VirtualThreads.isSupported()) {
+            log.warn("Виртуальные потоки не поддерживаются JVM {}, Tomcat использует пул обычных потоков",
+                    Runtime.version());
+            return protocolHandler -> {
+            };
+        }
+        tomcatExecutor = VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-");
+        log.info("Запросы обрабатываются в виртуальных потоках");
+        return protocolHandler -> protocolHandler.setExecutor(tomcatExecutor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (tomcatExecutor != null) {
+            tomcatExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.tracing.enabled", havingValue = "true")
+public class TracingConfig {
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public RestTemplateCustomizer tracingRestTemplateCustomizer(Tracer tracer) {
+        return restTemplate -> restTemplate.getInterceptors().add(new TracingRequestInterceptor(tracer));
+    }
+}
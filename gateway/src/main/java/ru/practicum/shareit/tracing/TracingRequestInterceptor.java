@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Открывает клиентский спан на каждую попытку обращения к серверу, включая страхующие, и передаёт его
+ * traceparent вместе с заголовками BaseClient. Вызовы вне запроса, например проверки здоровья, не трассируются.
+ */
+@RequiredArgsConstructor
+public class TracingRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final Tracer tracer;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (Span.current() == null) {
+            return execution.execute(request, body);
+        }
+        try (Span span = tracer.startSpan(request.getMethodValue() + " " + request.getURI().getPath(), SpanKind.CLIENT)) {
+            span.setAttribute("http.url", request.getURI().toString());
+            request.getHeaders().set(TraceContext.TRACEPARENT_HEADER, span.getContext().toTraceparent());
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                span.setAttribute("http.status_code", response.getRawStatusCode());
+                return response;
+            } catch (IOException | RuntimeException e) {
+                span.recordError(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -1,26 +1,45 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CancellableCall;
+import ru.practicum.shareit.client.CancellableRequestFactory;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
+import ru.practicum.shareit.error.UpstreamUnavailableException;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(ServerPool serverPool, RestTemplateBuilder builder,
+                      ClientResilienceRegistry resilienceRegistry, RequestHedgerRegistry hedgerRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory())
+                        .requestFactory(CancellableRequestFactory::new)
+                        .build(),
+                serverPool,
+                API_PREFIX,
+                resilienceRegistry.forClient("users"),
+                hedgerRegistry.forClient("users")
         );
     }
 
@@ -40,6 +59,43 @@ public class UserClient extends BaseClient {
         return get("");
     }
 
+    public ResponseEntity<Object> getUsersAfter(Long afterId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "afterId", afterId,
+                "size", size
+        );
+        return get("?afterId={afterId}&size={size}", null, parameters);
+    }
+
+    /**
+     * Передаёт NDJSON-поток пользователей с сервера клиенту по мере получения. Если клиент отключился,
+     * соединение с сервером прерывается, а не дочитывается.
+     */
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        CancellableCall call = new CancellableCall();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ClientHttpResponse upstream;
+        HttpStatus status;
+        try {
+            upstream = openStream("/stream", null, headers, call);
+            status = upstream.getStatusCode();
+        } catch (IOException e) {
+            call.cancel();
+            throw new UpstreamUnavailableException("Список пользователей недоступен: " + e.getMessage(), 1);
+        }
+        return ResponseEntity.status(status)
+                .contentType(upstream.getHeaders().getContentType())
+                .body(output -> {
+                    try (InputStream body = upstream.getBody()) {
+                        body.transferTo(output);
+                    } finally {
+                        call.cancel();
+                        upstream.close();
+                    }
+                });
+    }
+
     public ResponseEntity<Object> deleteUser(Long userId) {
         return delete("/" + userId);
     }
@@ -2,14 +2,19 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validate.Create;
 import ru.practicum.shareit.validate.Update;
 
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
 @Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -19,11 +24,26 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public ResponseEntity<Object> getAllUsers(@RequestParam(value = "afterId", defaultValue = "0")
+                                              @PositiveOrZero(message = "Значение 'afterId' должно быть положительным")
+                                              final Long afterId,
+                                              @RequestParam(value = "size", required = false)
+                                              @Positive(message = "Значение 'size' должно быть положительным")
+                                              final Integer size) {
+        if (size != null) {
+            log.info("Получена страница пользователей после id {}", afterId);
+            return userClient.getUsersAfter(afterId, size);
+        }
         log.info("Получен список всех пользователей.");
         return userClient.getAllUsers();
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("Открыт поток всех пользователей");
+        return userClient.streamAllUsers();
+    }
+
     @PostMapping
     public ResponseEntity<Object> createNewUser(@RequestBody @Validated(Create.class) UserDto userDto) {
         log.info("Создан новый пользователь с именем {}", userDto.getName());
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Таймаут асинхронных ответов, не задающих собственного. Из таких ответов есть только поток
+ * /users/stream: лента запросов задаёт таймаут сама.
+ */
+@Configuration
+@EnableConfigurationProperties(UserStreamProperties.class)
+@RequiredArgsConstructor
+public class UserStreamConfig implements WebMvcConfigurer {
+    private final UserStreamProperties properties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(properties.getTimeout().toMillis());
+    }
+}
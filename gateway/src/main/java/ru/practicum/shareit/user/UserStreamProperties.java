@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.user-stream")
+public class UserStreamProperties {
+    /**
+     * Сколько может длиться передача потока /users/stream. Должно быть больше срока потока на сервере,
+     * чтобы сервер успел завершить поток сам и клиент получил его без обрыва.
+     */
+    private Duration timeout = Duration.ofMinutes(11);
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import ru.practicum.shareit.batch.dto.BatchSubRequest;
+import ru.practicum.shareit.batch.dto.BatchSubResponse;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.HedgingProperties;
+import ru.practicum.shareit.client.LoadBalancerProperties;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
+import ru.practicum.shareit.client.StubServer;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+import ru.practicum.shareit.ratelimit.TokenBucketRateLimiter;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchServiceTest {
+    private final BatchProperties batchProperties = new BatchProperties();
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+    private StubServer server;
+    private BatchService batchService;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new StubServer();
+        batchProperties.setMaxSubRequests(5);
+    }
+
+    @AfterEach
+    void stop() {
+        batchService.shutdown();
+        server.stop();
+    }
+
+    @Test
+    void testSubRequestsRunInParallelAndKeepOrder() {
+        server.setDelayMillis(300);
+        createService();
+        List<BatchSubRequest> requests = IntStream.rangeClosed(1, 4)
+                .mapToObj(i -> BatchSubRequest.builder().id("user" + i).path("/users/" + i).build())
+                .collect(Collectors.toList());
+
+        long startNanos = System.nanoTime();
+        List<BatchSubResponse> responses = batchService.execute(1L, requests);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertEquals(4, responses.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("user" + (i + 1), responses.get(i).getId());
+            assertEquals(200, responses.get(i).getStatus());
+            assertEquals("user@mail.ru", ((Map<?, ?>) responses.get(i).getBody()).get("email"));
+        }
+        assertTrue(elapsedMillis < 1000, "batch took " + elapsedMillis + " ms");
+        assertEquals(4, server.getHits());
+    }
+
+    @Test
+    void testEachSubRequestGetsOwnStatus() {
+        createService();
+        List<BatchSubRequest> requests = List.of(
+                BatchSubRequest.builder().id("ok").method("GET").path("/users/1?from=0&size=10").build(),
+                BatchSubRequest.builder().id("write").method("DELETE").path("/users/1").build(),
+                BatchSubRequest.builder().id("unknown").path("/unknown/1").build(),
+                BatchSubRequest.builder().id("upstream").path("/items/1").build()
+        );
+
+        List<BatchSubResponse> responses = batchService.execute(1L, requests);
+
+        assertEquals(200, responses.get(0).getStatus());
+        assertEquals(400, responses.get(1).getStatus());
+        assertEquals(404, responses.get(2).getStatus());
+        assertEquals(404, responses.get(3).getStatus());
+        assertEquals(1, server.getHits());
+    }
+
+    @Test
+    void testSubRequestParametersAreValidatedLikeControllers() {
+        createService();
+        List<BatchSubRequest> requests = List.of(
+                BatchSubRequest.builder().id("size").path("/bookings?size=0").build(),
+                BatchSubRequest.builder().id("from").path("/items?from=-1").build(),
+                BatchSubRequest.builder().id("state").path("/bookings/owner?state=UNKNOWN").build(),
+                BatchSubRequest.builder().id("id").path("/users/abc").build(),
+                BatchSubRequest.builder().id("text").path("/items/search").build()
+        );
+
+        List<BatchSubResponse> responses = batchService.execute(1L, requests);
+
+        responses.forEach(response -> assertEquals(400, response.getStatus(), response.getId()));
+        assertEquals(0, server.getHits());
+    }
+
+    @Test
+    void testOnlyGatewayRoutesReachServer() {
+        createService();
+        List<BatchSubRequest> requests = List.of(
+                BatchSubRequest.builder().id("dots").path("/users/../actuator/hibernate").build(),
+                BatchSubRequest.builder().id("encoded").path("/users/%2e%2e/actuator/prometheus").build(),
+                BatchSubRequest.builder().id("slash").path("/users/1%2F..%2F..%2Factuator").build(),
+                BatchSubRequest.builder().id("actuator").path("/actuator/health").build(),
+                BatchSubRequest.builder().id("stream").path("/users/stream").build()
+        );
+
+        List<BatchSubResponse> responses = batchService.execute(1L, requests);
+
+        assertEquals(400, responses.get(0).getStatus());
+        assertEquals(400, responses.get(1).getStatus());
+        assertEquals(400, responses.get(2).getStatus());
+        assertEquals(404, responses.get(3).getStatus());
+        assertEquals(400, responses.get(4).getStatus());
+        assertEquals(0, server.getHits());
+    }
+
+    @Test
+    void testNullSubRequestRejectsBatch() {
+        createService();
+        List<BatchSubRequest> requests = Arrays.asList(BatchSubRequest.builder().path("/users/1").build(), null);
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(1L, requests));
+        assertEquals(0, server.getHits());
+    }
+
+    @Test
+    void testSubRequestsAreChargedToRateLimit() {
+        RateLimitProperties.Budget budget = new RateLimitProperties.Budget();
+        budget.setCapacity(2);
+        budget.setRefillPerSecond(1);
+        rateLimitProperties.setRoutes(Map.of("users", budget));
+        createService();
+        List<BatchSubRequest> requests = Collections.nCopies(3, BatchSubRequest.builder().path("/users/1").build());
+
+        List<BatchSubResponse> responses = batchService.execute(1L, requests);
+
+        assertEquals(2, responses.stream().filter(response -> response.getStatus() == 200).count());
+        assertEquals(1, responses.stream().filter(response -> response.getStatus() == 429).count());
+    }
+
+    @Test
+    void testFanOutIsCapped() {
+        createService();
+        List<BatchSubRequest> requests = Collections.nCopies(6, BatchSubRequest.builder().path("/users/1").build());
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(1L, requests));
+        assertEquals(0, server.getHits());
+    }
+
+    private void createService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RestTemplateBuilder builder = new RestTemplateBuilder();
+        ServerPool serverPool = new ServerPool(List.of(server.url()), new LoadBalancerProperties(), builder);
+        ClientResilienceRegistry resilienceRegistry = new ClientResilienceRegistry(new ClientResilienceProperties(),
+                meterRegistry);
+        RequestHedgerRegistry hedgerRegistry = new RequestHedgerRegistry(new HedgingProperties(),
+                new VirtualThreadsProperties(), meterRegistry);
+        batchService = new BatchService(batchProperties, new VirtualThreadsProperties(),
+                new TokenBucketRateLimiter(rateLimitProperties),
+                new ObjectMapper(),
+                new UserClient(serverPool, builder, resilienceRegistry, hedgerRegistry),
+                new ItemClient(serverPool, builder, resilienceRegistry, hedgerRegistry),
+                new BookingClient(serverPool, builder, resilienceRegistry, hedgerRegistry),
+                new ItemRequestClient(serverPool, builder, resilienceRegistry, hedgerRegistry));
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.error.UpstreamUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientResilienceTest {
+    private final AtomicLong clock = new AtomicLong(0);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientResilienceProperties.Policy policy = new ClientResilienceProperties.Policy();
+    private ClientResilience resilience;
+
+    @BeforeEach
+    void init() {
+        policy.setMaxConcurrentCalls(2);
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setFailureRateThreshold(50);
+        policy.setOpenDuration(Duration.ofSeconds(10));
+        policy.setHalfOpenPermittedCalls(2);
+        resilience = new ClientResilience("bookings", policy, meterRegistry, clock::get);
+    }
+
+    @Test
+    void testBulkheadRejectsCallsOverConcurrencyLimit() {
+        resilience.acquirePermission();
+        resilience.acquirePermission();
+
+        assertThrows(UpstreamUnavailableException.class, resilience::acquirePermission);
+
+        resilience.onCallFinished(false, 0);
+        resilience.acquirePermission();
+        assertEquals(1, resilience.snapshot().getRejectedByBulkhead());
+    }
+
+    @Test
+    void testCircuitOpensOnFailureRateAndFailsFast() {
+        openCircuit();
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState());
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                resilience::acquirePermission);
+        assertEquals(10, e.getRetryAfterSeconds());
+        assertEquals(1, resilience.snapshot().getRejectedByCircuitBreaker());
+        assertEquals(2, resilience.snapshot().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void testSuccessfulHalfOpenProbesCloseCircuit() {
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        resilience.acquirePermission();
+        resilience.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, resilience.getState());
+        resilience.onCallFinished(false, 0);
+        resilience.onCallFinished(false, 0);
+
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState());
+        assertEquals(3, resilience.snapshot().getRecentTransitions().size());
+    }
+
+    @Test
+    void testFailedHalfOpenProbeReopensCircuit() {
+        openCircuit();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        resilience.acquirePermission();
+        resilience.onCallFinished(true, 0);
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState());
+        assertThrows(UpstreamUnavailableException.class, resilience::acquirePermission);
+    }
+
+    @Test
+    void testSlowCallsCountAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            resilience.acquirePermission();
+            resilience.onCallFinished(false, policy.getSlowCallThreshold().toNanos());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            resilience.acquirePermission();
+            resilience.onCallFinished(i % 2 == 0, 0);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.StateOfBookingRequest;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestHedgerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HedgingProperties hedgingProperties = new HedgingProperties();
+    private StubServer slowServer;
+    private StubServer fastServer;
+    private ServerPool serverPool;
+    private RequestHedgerRegistry hedgerRegistry;
+    private UserClient userClient;
+    private BookingClient bookingClient;
+
+    @BeforeEach
+    void init() throws IOException {
+        slowServer = new StubServer();
+        slowServer.setDelayMillis(2000);
+        fastServer = new StubServer();
+        serverPool = new ServerPool(List.of(slowServer.url(), fastServer.url()), new LoadBalancerProperties(),
+                new RestTemplate(), System::nanoTime);
+        hedgingProperties.setEnabled(true);
+        hedgingProperties.setInitialDelay(Duration.ofMillis(50));
+        hedgingProperties.setBudgetPercent(100);
+    }
+
+    @AfterEach
+    void stop() {
+        if (hedgerRegistry != null) {
+            hedgerRegistry.shutdown();
+        }
+        slowServer.stop();
+        fastServer.stop();
+    }
+
+    @Test
+    void testSlowPrimaryIsHedgedToAnotherInstanceAndAborted() throws InterruptedException {
+        createClient();
+        ServerInstance slowInstance = serverPool.getInstances().get(0);
+        ServerInstance fastInstance = serverPool.getInstances().get(1);
+        fastInstance.requestStarted();
+
+        long startNanos = System.nanoTime();
+        ResponseEntity<Object> response = userClient.getUserById(1L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(elapsedMillis < 1000, "hedged request took " + elapsedMillis + " ms");
+        assertEquals(1, slowServer.getHits());
+        assertEquals(1, fastServer.getHits());
+        assertEquals(1, meterRegistry.counter("shareit.client.hedges", "client", "users", "result", "won").count());
+        for (int i = 0; i < 50 && slowInstance.getOutstandingRequests() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, slowInstance.getOutstandingRequests());
+        assertFalse(slowInstance.isEjected());
+    }
+
+    @Test
+    void testSlowBookingListIsHedgedWithShippedClients() throws IOException {
+        String clients = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"))
+                .getProperty("shareit.client.hedging.clients");
+        hedgingProperties.setClients(StringUtils.commaDelimitedListToSet(clients));
+        createClient();
+        serverPool.getInstances().get(1).requestStarted();
+
+        long startNanos = System.nanoTime();
+        ResponseEntity<Object> response = bookingClient.getUserBookings(1L, StateOfBookingRequest.ALL, 0, 10);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(elapsedMillis < 1000, "hedged request took " + elapsedMillis + " ms");
+        assertEquals(1, fastServer.getHits());
+        assertEquals(1, meterRegistry.counter("shareit.client.hedges", "client", "bookings", "result", "won")
+                .count());
+    }
+
+    @Test
+    void testNoHedgeWithoutBudget() {
+        hedgingProperties.setBudgetPercent(0);
+        slowServer.setDelayMillis(300);
+        createClient();
+        serverPool.getInstances().get(1).requestStarted();
+
+        ResponseEntity<Object> response = userClient.getUserById(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, fastServer.getHits());
+        assertEquals(1, meterRegistry.counter("shareit.client.hedges", "client", "users", "result", "denied").count());
+    }
+
+    @Test
+    void testNoHedgeForWrites() {
+        slowServer.setDelayMillis(300);
+        createClient();
+        serverPool.getInstances().get(1).requestStarted();
+
+        userClient.deleteUser(1L);
+
+        assertEquals(0, fastServer.getHits());
+    }
+
+    @Test
+    void testHedgeDelayFollowsObservedPercentile() {
+        hedgingProperties.setSampleSize(100);
+        hedgingProperties.setMinSamples(100);
+        hedgingProperties.setPercentile(90);
+        RequestHedger hedger = new RequestHedger("users", hedgingProperties, Runnable::run, meterRegistry);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), hedger.hedgeDelayNanos());
+
+        ServerPool singleServer = new ServerPool(List.of(fastServer.url()), new LoadBalancerProperties(),
+                new RestTemplate(), System::nanoTime);
+        for (int i = 1; i <= 100; i++) {
+            long latencyMillis = i;
+            hedger.execute(singleServer, (instance, call) -> {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(latencyMillis) / 100;
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                return latencyMillis;
+            });
+        }
+
+        long delay = hedger.hedgeDelayNanos();
+        assertTrue(delay >= TimeUnit.MILLISECONDS.toNanos(10), "delay " + delay);
+    }
+
+    private void createClient() {
+        hedgerRegistry = new RequestHedgerRegistry(hedgingProperties, new VirtualThreadsProperties(),
+                meterRegistry);
+        ClientResilienceRegistry resilienceRegistry = new ClientResilienceRegistry(new ClientResilienceProperties(),
+                meterRegistry);
+        userClient = new UserClient(serverPool, new RestTemplateBuilder(), resilienceRegistry, hedgerRegistry);
+        bookingClient = new BookingClient(serverPool, new RestTemplateBuilder(), resilienceRegistry, hedgerRegistry);
+    }
+}
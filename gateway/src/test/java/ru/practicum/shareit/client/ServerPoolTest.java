@@ -0,0 +1,166 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerPoolTest {
+    private final AtomicLong clock = new AtomicLong(0);
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private final List<StubServer> stubs = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServerPool serverPool;
+    private UserClient userClient;
+
+    @BeforeEach
+    void init() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            stubs.add(new StubServer());
+        }
+        properties.setConsecutiveFailuresToEject(2);
+        properties.setBaseEjectionTime(Duration.ofSeconds(30));
+        properties.setMaxEjectionPercent(50);
+        serverPool = new ServerPool(stubs.stream().map(StubServer::url).collect(Collectors.toList()), properties,
+                new RestTemplate(), clock::get);
+        ClientResilienceRegistry resilienceRegistry = new ClientResilienceRegistry(new ClientResilienceProperties(),
+                meterRegistry);
+        RequestHedgerRegistry hedgerRegistry = new RequestHedgerRegistry(new HedgingProperties(),
+                new VirtualThreadsProperties(), new SimpleMeterRegistry());
+        userClient = new UserClient(serverPool, new RestTemplateBuilder(), resilienceRegistry, hedgerRegistry);
+    }
+
+    @AfterEach
+    void stop() {
+        stubs.forEach(StubServer::stop);
+    }
+
+    @Test
+    void testRequestsAreSpreadAcrossInstances() {
+        for (int i = 0; i < 60; i++) {
+            assertEquals(HttpStatus.OK, userClient.getUserById(1L).getStatusCode());
+        }
+
+        stubs.forEach(stub -> assertTrue(stub.getHits() > 0));
+    }
+
+    @Test
+    void testUpstreamCallsAreTimedByRouteTemplate() {
+        userClient.getUserById(1L);
+        userClient.getUserById(2L);
+
+        assertEquals(2, meterRegistry.get("shareit.client.requests")
+                .tags("client", "users", "method", "GET", "uri", "/users/{id}", "status", "200")
+                .timer().count());
+        assertEquals("/bookings/{id}", BaseClient.uriTag("/bookings", "/12?approved={approved}"));
+        assertEquals("/requests/all", BaseClient.uriTag("/requests", "/all?from={from}&size={size}"));
+    }
+
+    @Test
+    void testLeastOutstandingInstanceIsChosen() {
+        List<ServerInstance> instances = serverPool.getInstances();
+        instances.get(0).requestStarted();
+        instances.get(1).requestStarted();
+        instances.get(1).requestStarted();
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(instances.get(2), serverPool.choose());
+        }
+        assertSame(instances.get(0), serverPool.choose(List.of(instances.get(2))));
+    }
+
+    @Test
+    void testInstanceFailingHealthCheckIsSkipped() {
+        stubs.get(1).setHealth("DOWN");
+
+        serverPool.checkHealth();
+        for (int i = 0; i < 30; i++) {
+            userClient.getUserById(1L);
+        }
+
+        assertFalse(serverPool.getInstances().get(1).isHealthy());
+        assertEquals(0, stubs.get(1).getHits());
+
+        stubs.get(1).setHealth("UP");
+        serverPool.checkHealth();
+        assertTrue(serverPool.getInstances().get(1).isHealthy());
+    }
+
+    @Test
+    void testInstanceReturningErrorsIsEjected() {
+        stubs.get(0).setStatus(500);
+
+        for (int i = 0; i < 30; i++) {
+            userClient.getUserById(1L);
+        }
+
+        assertTrue(serverPool.getInstances().get(0).isEjected());
+        assertEquals(2, stubs.get(0).getHits());
+    }
+
+    @Test
+    void testEjectedInstanceReturnsAfterEjectionTime() {
+        ServerInstance instance = serverPool.getInstances().get(0);
+        serverPool.onFailure(instance);
+        serverPool.onFailure(instance);
+        assertTrue(instance.isEjected());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertTrue(instance.isAvailable(clock.get()));
+        assertFalse(instance.isEjected());
+    }
+
+    @Test
+    void testRepeatedEjectionsGrowAndDecayWhileInstanceIsHealthy() {
+        ServerInstance instance = serverPool.getInstances().get(0);
+        eject(instance);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        eject(instance);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertFalse(instance.isAvailable(clock.get()));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(instance.isAvailable(clock.get()));
+
+        clock.addAndGet(TimeUnit.DAYS.toNanos(1));
+        eject(instance);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(instance.isAvailable(clock.get()));
+    }
+
+    @Test
+    void testEjectionIsCappedByMaxEjectionPercent() {
+        stubs.forEach(stub -> stub.setStatus(500));
+
+        for (int i = 0; i < 9; i++) {
+            ResponseEntity<Object> response = userClient.getUserById(1L);
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        }
+
+        long ejected = serverPool.getInstances().stream().filter(ServerInstance::isEjected).count();
+        assertEquals(1, ejected);
+    }
+
+    private void eject(ServerInstance instance) {
+        serverPool.onFailure(instance);
+        serverPool.onFailure(instance);
+        assertTrue(instance.isEjected());
+    }
+}
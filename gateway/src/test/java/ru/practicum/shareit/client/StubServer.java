@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StubServer {
+    private final HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String health = "UP";
+    private volatile long delayMillis;
+    private volatile String lastTraceparent;
+    private volatile String lastEventId;
+    private volatile boolean stopped;
+
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/actuator/health", exchange ->
+                respond(exchange, "UP".equals(health) ? 200 : 503, "{\"status\":\"" + health + "\"}"));
+        server.createContext("/users", exchange ->
+                respondDelayed(exchange, "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}"));
+        server.createContext("/bookings", exchange -> respondDelayed(exchange, "[]"));
+        server.createContext("/requests/stream", exchange -> {
+            lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            if (status != 200) {
+                respond(exchange, status, "{\"error\":\"not found\"}");
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("id:1\nevent:request\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                while (!stopped) {
+                    Thread.sleep(20);
+                }
+            } catch (IOException | InterruptedException e) {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    private void respondDelayed(HttpExchange exchange, String body) throws IOException {
+        hits.incrementAndGet();
+        lastTraceparent = exchange.getRequestHeaders().getFirst("traceparent");
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        respond(exchange, status, body);
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    public String getLastTraceparent() {
+        return lastTraceparent;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public void setHealth(String health) {
+        this.health = health;
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void stop() {
+        stopped = true;
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+}
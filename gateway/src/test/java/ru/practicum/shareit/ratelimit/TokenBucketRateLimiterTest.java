@@ -0,0 +1,111 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(0);
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void init() {
+        RateLimitProperties.Budget bookings = new RateLimitProperties.Budget();
+        bookings.setCapacity(3);
+        bookings.setRefillPerSecond(1);
+        properties.setRoutes(Map.of("bookings", bookings));
+        properties.setStripes(2);
+        properties.setMaxUsers(4);
+        properties.setIdleTimeout(Duration.ofSeconds(30));
+        rateLimiter = new TokenBucketRateLimiter(properties, clock::get);
+    }
+
+    @Test
+    void testBurstUpToCapacityThenReject() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("bookings", 1L));
+        }
+
+        long wait = rateLimiter.tryAcquire("bookings", 1L);
+
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void testTokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("bookings", 1L);
+        }
+        assertTrue(rateLimiter.tryAcquire("bookings", 1L) > 0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, rateLimiter.tryAcquire("bookings", 1L));
+        assertTrue(rateLimiter.tryAcquire("bookings", 1L) > 0);
+    }
+
+    @Test
+    void testUsersAndRoutesHaveSeparateBudgets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("bookings", 1L);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("bookings", 2L));
+        assertEquals(0, rateLimiter.tryAcquire("items", 1L));
+    }
+
+    @Test
+    void testIdleUsersAreEvictedWhenTableIsFull() {
+        for (long userId = 0; userId < 4; userId++) {
+            rateLimiter.tryAcquire("bookings", userId);
+        }
+        assertTrue(rateLimiter.trackedUsers("bookings") <= 4);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        for (long userId = 10; userId < 14; userId++) {
+            assertEquals(0, rateLimiter.tryAcquire("bookings", userId));
+        }
+
+        assertTrue(rateLimiter.trackedUsers("bookings") <= 4);
+    }
+
+    @Test
+    void testNewUsersAreShedWhenTableIsFullOfActiveUsers() {
+        for (long userId = 0; userId < 8; userId += 2) {
+            rateLimiter.tryAcquire("bookings", userId);
+        }
+
+        assertEquals(0, rateLimiter.tryAcquire("bookings", 0L));
+        assertTrue(rateLimiter.tryAcquire("bookings", 100L) > 0);
+    }
+
+    @Test
+    void testUnknownRoutesShareOneBucket() {
+        int routes = rateLimiter.trackedRoutes();
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.tryAcquire("random-" + i, 1L);
+        }
+
+        assertEquals(routes, rateLimiter.trackedRoutes());
+        assertEquals(1, rateLimiter.trackedUsers(TokenBucketRateLimiter.OTHER_ROUTE));
+        assertEquals(0, rateLimiter.trackedUsers("random-0"));
+    }
+
+    @Test
+    void testDisabledLimiterPermitsEverything() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("bookings", 1L));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.HedgingProperties;
+import ru.practicum.shareit.client.LoadBalancerProperties;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
+import ru.practicum.shareit.client.StubServer;
+import ru.practicum.shareit.error.UpstreamUnavailableException;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestFeedProxyTest {
+    private StubServer server;
+    private RequestFeedProxy proxy;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new StubServer();
+        RequestFeedProperties properties = new RequestFeedProperties();
+        properties.setMaxStreams(1);
+        proxy = new RequestFeedProxy(createClient(), properties);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+        proxy.shutdown();
+    }
+
+    @Test
+    void testStreamIsOpenedWithLastEventId() {
+        ResponseEntity<ResponseBodyEmitter> response = proxy.open("/stream", 1L, "5");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.TEXT_EVENT_STREAM, response.getHeaders().getContentType());
+        assertEquals("5", server.getLastEventId());
+    }
+
+    @Test
+    void testUpstreamErrorStatusIsPassedThrough() {
+        server.setStatus(404);
+
+        ResponseEntity<ResponseBodyEmitter> response = proxy.open("/stream", 1L, null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void testStreamsAreLimited() {
+        proxy.open("/stream", 1L, null);
+
+        assertThrows(UpstreamUnavailableException.class, () -> proxy.open("/stream", 2L, null));
+    }
+
+    private ItemRequestClient createClient() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ServerPool serverPool = new ServerPool(List.of(server.url()), new LoadBalancerProperties(),
+                new RestTemplateBuilder());
+        return new ItemRequestClient(serverPool, new RestTemplateBuilder(),
+                new ClientResilienceRegistry(new ClientResilienceProperties(), meterRegistry),
+                new RequestHedgerRegistry(new HedgingProperties(), new VirtualThreadsProperties(), meterRegistry));
+    }
+}
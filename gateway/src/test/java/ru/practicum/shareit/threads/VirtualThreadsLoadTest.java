@@ -0,0 +1,107 @@
+package ru.practicum.shareit.threads;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.StubServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнивает пропускную способность шлюза на пуле потоков Tomcat и на виртуальных потоках
+ * при 10 000 одновременных соединений. Запуск: mvn test -pl gateway -Dtest=VirtualThreadsLoadTest
+ * -Dshareit.load-test=true (для виртуальных потоков нужна JDK 21+, иначе второй прогон идёт на обычных).
+ */
+@EnabledIfSystemProperty(named = "shareit.load-test", matches = "true")
+public class VirtualThreadsLoadTest {
+    private static final int CONNECTIONS = Integer.getInteger("shareit.load-test.connections", 10000);
+    private static final long SECONDS = Long.getLong("shareit.load-test.seconds", 20);
+    private static final long BACKEND_DELAY_MILLIS = Long.getLong("shareit.load-test.backend-delay-millis", 20);
+
+    @Test
+    void compareThroughput() throws Exception {
+        System.setProperty("http.maxConnections", System.getProperty("http.maxConnections", "500"));
+        StubServer backend = new StubServer();
+        backend.setDelayMillis(BACKEND_DELAY_MILLIS);
+        try {
+            Result platform = run(backend, false);
+            Result virtual = run(backend, true);
+            System.out.printf("%d соединений, %d с: потоки Tomcat %.0f запр/с (ошибок %d), "
+                            + "виртуальные потоки%s %.0f запр/с (ошибок %d)%n",
+                    CONNECTIONS, SECONDS, platform.throughput(), platform.failed.get(),
+                    VirtualThreads.isSupported() ? "" : " (не поддерживаются JVM)", virtual.throughput(),
+                    virtual.failed.get());
+            assertTrue(platform.succeeded.get() > 0);
+            assertTrue(virtual.succeeded.get() > 0);
+        } finally {
+            backend.stop();
+        }
+    }
+
+    private static Result run(StubServer backend, boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=" + backend.url(),
+                        "--shareit.virtual-threads.enabled=" + virtualThreads,
+                        "--shareit.rate-limit.enabled=false",
+                        "--shareit.client.resilience.default.max-concurrent-calls=" + CONNECTIONS,
+                        "--shareit.client.resilience.default.slow-call-threshold=60s",
+                        "--server.tomcat.max-connections=" + (CONNECTIONS + 1000),
+                        "--server.tomcat.accept-count=" + CONNECTIONS,
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+        try {
+            Integer port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1"))
+                    .header("X-Sharer-User-Id", "1")
+                    .build();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            Result result = new Result();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+            List<CompletableFuture<Void>> users = new ArrayList<>(CONNECTIONS);
+            for (int i = 0; i < CONNECTIONS; i++) {
+                users.add(loop(client, request, deadline, result));
+            }
+            CompletableFuture.allOf(users.toArray(new CompletableFuture[0])).join();
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient client, HttpRequest request, long deadline, Result result) {
+        if (System.nanoTime() - deadline >= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, e) -> {
+                    if (e == null && response.statusCode() == 200) {
+                        result.succeeded.incrementAndGet();
+                    } else {
+                        result.failed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, request, deadline, result));
+    }
+
+    private static class Result {
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        double throughput() {
+            return (double) succeeded.get() / SECONDS;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.ClientResilienceRegistry;
+import ru.practicum.shareit.client.HedgingProperties;
+import ru.practicum.shareit.client.LoadBalancerProperties;
+import ru.practicum.shareit.client.RequestHedgerRegistry;
+import ru.practicum.shareit.client.ServerPool;
+import ru.practicum.shareit.client.StubServer;
+import ru.practicum.shareit.threads.VirtualThreadsProperties;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracingTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @TempDir
+    Path tempDir;
+    private StubServer server;
+    private FileSpanExporter exporter;
+    private Tracer tracer;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new StubServer();
+        exporter = new FileSpanExporter("shareit-gateway", tempDir.resolve("traces.jsonl"), 100);
+        tracer = new Tracer(1.0, exporter);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void testTraceparentIsParsedAndFormatted() {
+        TraceContext context = TraceContext.parse("00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+
+        assertNotNull(context);
+        assertEquals(TRACE_ID, context.getTraceId());
+        assertTrue(context.isSampled());
+        assertEquals("00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01", context.toTraceparent());
+        assertNull(TraceContext.parse("00-" + TRACE_ID + "-0000000000000000-01"));
+        assertNull(TraceContext.parse("garbage"));
+        assertNull(TraceContext.parse(null));
+    }
+
+    @Test
+    void testUpstreamCallContinuesIncomingTrace() throws Exception {
+        UserClient userClient = createClient();
+
+        String serverSpanId;
+        try (Span span = tracer.startServerSpan("GET /users/{id}", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01")) {
+            serverSpanId = span.getContext().getSpanId();
+            userClient.getUserById(1L);
+        }
+        exporter.close();
+
+        TraceContext upstream = TraceContext.parse(server.getLastTraceparent());
+        assertNotNull(upstream);
+        assertEquals(TRACE_ID, upstream.getTraceId());
+        assertNotEquals(serverSpanId, upstream.getSpanId());
+        assertNull(Span.current());
+
+        List<JsonNode> spans = readSpans();
+        assertEquals(2, spans.size());
+        JsonNode clientSpan = spans.get(0);
+        JsonNode serverSpan = spans.get(1);
+        assertEquals("CLIENT", clientSpan.get("kind").asText());
+        assertEquals(upstream.getSpanId(), clientSpan.get("spanId").asText());
+        assertEquals(serverSpanId, clientSpan.get("parentSpanId").asText());
+        assertEquals(200, clientSpan.get("attributes").get("http.status_code").asInt());
+        assertEquals(PARENT_SPAN_ID, serverSpan.get("parentSpanId").asText());
+        assertEquals(TRACE_ID, serverSpan.get("traceId").asText());
+    }
+
+    @Test
+    void testCallsOutsideRequestAreNotTraced() throws Exception {
+        createClient().getUserById(1L);
+        exporter.close();
+
+        assertNull(server.getLastTraceparent());
+        assertFalse(Files.exists(tempDir.resolve("traces.jsonl")));
+    }
+
+    private UserClient createClient() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RestTemplateBuilder builder = new RestTemplateBuilder(restTemplate -> restTemplate.getInterceptors()
+                .add(new TracingRequestInterceptor(tracer)));
+        ServerPool serverPool = new ServerPool(List.of(server.url()), new LoadBalancerProperties(),
+                new RestTemplateBuilder());
+        return new UserClient(serverPool, builder,
+                new ClientResilienceRegistry(new ClientResilienceProperties(), meterRegistry),
+                new RequestHedgerRegistry(new HedgingProperties(), new VirtualThreadsProperties(), meterRegistry));
+    }
+
+    private List<JsonNode> readSpans() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(tempDir.resolve("traces.jsonl"))) {
+            spans.add(objectMapper.readTree(line));
+        }
+        return spans;
+    }
+}
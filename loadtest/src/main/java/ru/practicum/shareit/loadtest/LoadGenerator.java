@@ -0,0 +1,97 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы приходят пуассоновским потоком с заданной интенсивностью
+ * независимо от того, успевает ли система отвечать. Ответы в период прогрева не учитываются.
+ */
+public class LoadGenerator {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final Workload workload;
+    private final Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(LoadTestOptions options, Workload workload) {
+        this.options = options;
+        this.workload = workload;
+        for (Route route : Route.values()) {
+            stats.put(route, new RouteStats());
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        Random random = new Random(options.getData().getSeed());
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + options.getWarmup().toNanos();
+        long endNanos = measureFromNanos + options.getDuration().toNanos();
+        try {
+            for (long scheduledNanos = startNanos; scheduledNanos < endNanos;
+                 scheduledNanos += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos)) {
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                send(client, workload.next(random), scheduledNanos, scheduledNanos >= measureFromNanos);
+            }
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return LoadReport.of(options, stats);
+    }
+
+    private void send(HttpClient client, Workload.Call call, long scheduledNanos, boolean measured) {
+        RouteStats routeStats = stats.get(call.getRoute());
+        if (inFlight.get() >= options.getMaxInFlight()) {
+            if (measured) {
+                routeStats.record(RouteStats.DROPPED, 0);
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(call.getRequest(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    long latencyNanos = System.nanoTime() - scheduledNanos;
+                    if (response != null) {
+                        workload.onResponse(call, response);
+                    }
+                    if (measured) {
+                        routeStats.record(outcome(response, error), latencyNanos);
+                    }
+                });
+    }
+
+    private static String outcome(HttpResponse<String> response, Throwable error) {
+        if (response != null) {
+            return Integer.toString(response.statusCode());
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException ? "TIMEOUT" : "IO_ERROR";
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итоги прогона по маршрутам: пропускная способность, доля ошибок и перцентили задержки.
+ */
+@Data
+@Builder
+public class LoadReport {
+    private double targetRate;
+    private long durationSeconds;
+    private Map<String, Integer> mix;
+    private Map<String, RouteReport> routes;
+
+    @Data
+    @Builder
+    public static class RouteReport {
+        private long requests;
+        private double throughputPerSecond;
+        private double errorRate;
+        private Map<String, Long> outcomes;
+        private double p50Millis;
+        private double p90Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+    }
+
+    static LoadReport of(LoadTestOptions options, Map<Route, RouteStats> stats) {
+        double seconds = options.getDuration().toMillis() / 1000.0;
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.getMix().forEach((route, weight) -> mix.put(route.getKey(), weight));
+        Map<String, RouteReport> routes = new LinkedHashMap<>();
+        stats.forEach((route, routeStats) -> {
+            Map<String, Long> outcomes = routeStats.outcomes();
+            long requests = outcomes.values().stream().mapToLong(Long::longValue).sum();
+            if (requests == 0) {
+                return;
+            }
+            long errors = outcomes.entrySet().stream()
+                    .filter(entry -> !entry.getKey().startsWith("2"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            long[] latencies = routeStats.sortedLatencies();
+            routes.put(route.getTemplate(), RouteReport.builder()
+                    .requests(requests)
+                    .throughputPerSecond(round(requests / seconds))
+                    .errorRate(Math.round(errors * 10000.0 / requests) / 10000.0)
+                    .outcomes(outcomes)
+                    .p50Millis(percentileMillis(latencies, 0.5))
+                    .p90Millis(percentileMillis(latencies, 0.9))
+                    .p99Millis(percentileMillis(latencies, 0.99))
+                    .p999Millis(percentileMillis(latencies, 0.999))
+                    .maxMillis(percentileMillis(latencies, 1))
+                    .build());
+        });
+        return LoadReport.builder()
+                .targetRate(options.getRate())
+                .durationSeconds(options.getDuration().toSeconds())
+                .mix(mix)
+                .routes(routes)
+                .build();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-24s %9s %9s %8s %9s %9s %9s %9s  %s%n",
+                "route", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms", "outcomes");
+        routes.forEach((route, report) -> out.printf("%-24s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f  %s%n",
+                route, report.getRequests(), report.getThroughputPerSecond(), report.getErrorRate() * 100,
+                report.getP50Millis(), report.getP90Millis(), report.getP99Millis(), report.getMaxMillis(),
+                report.getOutcomes()));
+    }
+
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        long nanos = sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))];
+        return round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.loadtest;
+
+import ru.practicum.shareit.datagen.DataGenerator;
+import ru.practicum.shareit.datagen.GeneratedDataset;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * Локальный нагрузочный прогон: запускает сервер и шлюз, заполняет базу и подаёт смешанную нагрузку через шлюз.
+ * Отчёт печатается в консоль и сохраняется в JSON рядом с логами процессов.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (LocalStack stack = LocalStack.start(options)) {
+            GeneratedDataset data;
+            try (Connection connection = DriverManager.getConnection(stack.getJdbcUrl(), "test", "test")) {
+                data = new DataGenerator(options.getData()).generate(connection);
+            }
+            System.out.printf("Нагрузка %.1f запросов/с: прогрев %s, замер %s%n",
+                    options.getRate(), options.getWarmup(), options.getDuration());
+            Workload workload = new Workload(stack.getGatewayUrl(), data, options.getData(), options.getMix());
+            LoadReport report = new LoadGenerator(options, workload).run();
+            report.print(System.out);
+            Path reportFile = options.getWorkDir().resolve("report.json");
+            report.write(reportFile);
+            System.out.println("Отчёт сохранён в " + reportFile.toAbsolutePath());
+        }
+    }
+}
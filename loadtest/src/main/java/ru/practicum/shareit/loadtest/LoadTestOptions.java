@@ -0,0 +1,131 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import ru.practicum.shareit.datagen.DataGeneratorSettings;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона в виде --name=value. Неуказанные параметры берутся по умолчанию, параметры объёма
+ * и перекоса данных передаются в {@link DataGeneratorSettings}.
+ */
+@Getter
+public class LoadTestOptions {
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private double rate = 50;
+    private int maxInFlight = 1000;
+    private String heap = "512m";
+    private final Map<Route, Integer> mix = new EnumMap<>(Route.class);
+    private Path serverJar;
+    private Path gatewayJar;
+    private Path workDir = Path.of("target", "loadtest");
+    private final List<String> serverArgs = new ArrayList<>();
+    private final List<String> gatewayArgs = new ArrayList<>();
+    private final DataGeneratorSettings data = new DataGeneratorSettings();
+
+    public static LoadTestOptions parse(String[] args) throws IOException {
+        LoadTestOptions options = new LoadTestOptions();
+        for (Route route : Route.values()) {
+            options.mix.put(route, route.getDefaultWeight());
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидается параметр вида --name=value: " + arg);
+            }
+            options.set(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        if (options.serverJar == null) {
+            options.serverJar = findJar(Path.of("..", "server", "target"), "shareit-server-", "-exec.jar");
+        }
+        if (options.gatewayJar == null) {
+            options.gatewayJar = findJar(Path.of("..", "gateway", "target"), "shareit-gateway-", ".jar");
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "duration":
+                duration = parseDuration(value);
+                break;
+            case "warmup":
+                warmup = parseDuration(value);
+                break;
+            case "rate":
+                rate = Double.parseDouble(value);
+                break;
+            case "max-in-flight":
+                maxInFlight = Integer.parseInt(value);
+                break;
+            case "heap":
+                heap = value;
+                break;
+            case "mix":
+                mix.replaceAll((route, weight) -> 0);
+                for (String entry : value.split(",")) {
+                    String[] parts = entry.split(":");
+                    mix.put(Route.byKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+                }
+                break;
+            case "server-jar":
+                serverJar = Path.of(value);
+                break;
+            case "gateway-jar":
+                gatewayJar = Path.of(value);
+                break;
+            case "work-dir":
+                workDir = Path.of(value);
+                break;
+            case "server-arg":
+                serverArgs.add(value);
+                break;
+            case "gateway-arg":
+                gatewayArgs.add(value);
+                break;
+            default:
+                data.set(name, value);
+        }
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("Неверная длительность: " + value);
+        }
+    }
+
+    private static Path findJar(Path directory, String prefix, String suffix) throws IOException {
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> jars = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+                for (Path jar : jars) {
+                    if (suffix.equals("-exec.jar") || !jar.getFileName().toString().endsWith("-exec.jar")) {
+                        return jar;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Не найден " + prefix + "*" + suffix + " в " + directory.toAbsolutePath()
+                + ": соберите проект (mvn -DskipTests package) или укажите путь явно");
+    }
+}
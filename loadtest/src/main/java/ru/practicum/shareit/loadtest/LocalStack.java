@@ -0,0 +1,124 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запускает сервер и шлюз отдельными процессами на свободных портах. Сервер работает с файловой базой H2
+ * в режиме AUTO_SERVER, чтобы генератор данных мог подключиться к ней параллельно.
+ */
+public class LocalStack implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final String jdbcUrl;
+    private final String gatewayUrl;
+
+    private LocalStack(String jdbcUrl, String gatewayUrl) {
+        this.jdbcUrl = jdbcUrl;
+        this.gatewayUrl = gatewayUrl;
+    }
+
+    public static LocalStack start(LoadTestOptions options) throws IOException, InterruptedException {
+        Path workDir = options.getWorkDir().toAbsolutePath();
+        Files.createDirectories(workDir);
+        Files.deleteIfExists(workDir.resolve("shareit.mv.db"));
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        String jdbcUrl = "jdbc:h2:file:" + workDir.resolve("shareit") + ";AUTO_SERVER=TRUE";
+        LocalStack stack = new LocalStack(jdbcUrl, "http://localhost:" + gatewayPort);
+        try {
+            List<String> serverArgs = new ArrayList<>(List.of(
+                    "--server.port=" + serverPort,
+                    "--spring.profiles.active=test",
+                    "--spring.datasource.url=" + jdbcUrl));
+            serverArgs.addAll(options.getServerArgs());
+            stack.launch("server", options.getServerJar(), options.getHeap(), serverArgs, workDir,
+                    "http://localhost:" + serverPort);
+
+            List<String> gatewayArgs = new ArrayList<>(List.of(
+                    "--server.port=" + gatewayPort,
+                    "--shareit-server.url=http://localhost:" + serverPort,
+                    "--logging.level.org.springframework.web.client.RestTemplate=INFO"));
+            gatewayArgs.addAll(options.getGatewayArgs());
+            stack.launch("gateway", options.getGatewayJar(), options.getHeap(), gatewayArgs, workDir,
+                    stack.gatewayUrl);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void launch(String name, Path jar, String heap, List<String> args, Path workDir, String baseUrl)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-Xmx" + heap, "-jar",
+                jar.toAbsolutePath().toString()));
+        command.addAll(args);
+        Path log = workDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        processes.add(process);
+        System.out.printf("Запуск %s (%s), лог: %s%n", name, baseUrl, log);
+        awaitHealthy(name, process, baseUrl + "/actuator/health", log);
+    }
+
+    private static void awaitHealthy(String name, Process process, String healthUrl, Path log)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(healthUrl)).timeout(Duration.ofSeconds(2)).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился при запуске, см. " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // ещё не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " не запустился за " + STARTUP_TIMEOUT + ", см. " + log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.loadtest;
+
+/**
+ * Маршруты смешанной нагрузки. Ключ используется в опции --mix, шаблон пути - в отчёте.
+ */
+public enum Route {
+    SEARCH("search", "GET /items/search", 25),
+    ITEM("item", "GET /items/{id}", 25),
+    OWNER_ITEMS("owner-items", "GET /items", 10),
+    BOOKER_BOOKINGS("bookings", "GET /bookings", 10),
+    OWNER_BOOKINGS("owner-bookings", "GET /bookings/owner", 10),
+    CREATE_BOOKING("create-booking", "POST /bookings", 10),
+    APPROVE_BOOKING("approve-booking", "PATCH /bookings/{id}", 10);
+
+    private final String key;
+    private final String template;
+    private final int defaultWeight;
+
+    Route(String key, String template, int defaultWeight) {
+        this.key = key;
+        this.template = template;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public static Route byKey(String key) {
+        for (Route route : values()) {
+            if (route.key.equals(key)) {
+                return route;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный маршрут в --mix: " + key);
+    }
+}
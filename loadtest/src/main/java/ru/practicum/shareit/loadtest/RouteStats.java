@@ -0,0 +1,43 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Коды ответов и задержки одного маршрута. Задержка считается от запланированного момента отправки,
+ * поэтому очередь в самом генераторе не прячет медленные ответы.
+ */
+public class RouteStats {
+    public static final String DROPPED = "DROPPED";
+
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private long[] latencies = new long[1024];
+    private int size;
+
+    public void record(String outcome, long latencyNanos) {
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (!DROPPED.equals(outcome)) {
+            synchronized (this) {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size * 2);
+                }
+                latencies[size++] = latencyNanos;
+            }
+        }
+    }
+
+    public Map<String, Long> outcomes() {
+        Map<String, Long> result = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> result.put(outcome, count.sum()));
+        return result;
+    }
+
+    public synchronized long[] sortedLatencies() {
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.datagen.DataGeneratorSettings;
+import ru.practicum.shareit.datagen.GeneratedDataset;
+import ru.practicum.shareit.datagen.ZipfSampler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Формирует запросы по весам маршрутов. Пользователи и вещи выбираются с тем же перекосом, что и при генерации
+ * данных, так что популярные на чтение вещи совпадают с часто бронируемыми. Подтверждения берутся из бронирований, созданных в этом же прогоне,
+ * пока их нет - вместо подтверждения создаётся бронирование.
+ */
+public class Workload {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String gatewayUrl;
+    private final GeneratedDataset data;
+    private final ZipfSampler users;
+    private final ZipfSampler items;
+    private final Route[] routes;
+    private final int[] cumulativeWeights;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentLinkedQueue<long[]> pendingApprovals = new ConcurrentLinkedQueue<>();
+
+    public Workload(String gatewayUrl, GeneratedDataset data, DataGeneratorSettings settings, Map<Route, Integer> mix) {
+        this.gatewayUrl = gatewayUrl;
+        this.data = data;
+        this.users = new ZipfSampler(data.getUserCount(), settings.getUserSkew(), settings.getSeed() + 2);
+        this.items = new ZipfSampler(data.getItemCount(), settings.getItemSkew(), settings.getSeed() + 3);
+        this.routes = mix.entrySet().stream().filter(e -> e.getValue() > 0).map(Map.Entry::getKey)
+                .toArray(Route[]::new);
+        if (routes.length == 0) {
+            throw new IllegalArgumentException("В --mix нет ни одного маршрута с положительным весом");
+        }
+        this.cumulativeWeights = new int[routes.length];
+        int total = 0;
+        for (int i = 0; i < routes.length; i++) {
+            total += mix.get(routes[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Call next(Random random) {
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (cumulativeWeights[index] <= point) {
+            index++;
+        }
+        Route route = routes[index];
+        if (route == Route.APPROVE_BOOKING) {
+            long[] pending = pendingApprovals.poll();
+            if (pending != null) {
+                return new Call(route, request("/bookings/" + pending[0] + "?approved=" + random.nextBoolean(),
+                        pending[1]).method("PATCH", HttpRequest.BodyPublishers.noBody()).build(), 0);
+            }
+            route = Route.CREATE_BOOKING;
+        }
+        long userId = randomUser(random);
+        switch (route) {
+            case SEARCH:
+                String word = data.getSearchWords().get(random.nextInt(data.getSearchWords().size()));
+                return new Call(route, request("/items/search?text=" + URLEncoder.encode(word, StandardCharsets.UTF_8)
+                        + "&from=0&size=20", userId).GET().build(), 0);
+            case ITEM:
+                return new Call(route, request("/items/" + data.itemId(items.sample(random)), userId).GET().build(), 0);
+            case OWNER_ITEMS:
+                long ownerId = data.itemOwnerId(items.sample(random));
+                return new Call(route, request("/items?from=0&size=20", ownerId).GET().build(), 0);
+            case BOOKER_BOOKINGS:
+                return new Call(route, request("/bookings?state=ALL&from=0&size=20", userId).GET().build(), 0);
+            case OWNER_BOOKINGS:
+                return new Call(route, request("/bookings/owner?state=ALL&from=0&size=20", userId).GET().build(), 0);
+            default:
+                return createBooking(random);
+        }
+    }
+
+    public void onResponse(Call call, HttpResponse<String> response) {
+        if (call.getRoute() != Route.CREATE_BOOKING || response.statusCode() / 100 != 2) {
+            return;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            if (id != null) {
+                pendingApprovals.add(new long[]{id.asLong(), call.getItemOwnerId()});
+            }
+        } catch (IOException e) {
+            // тело не JSON - такое бронирование просто не подтверждаем
+        }
+    }
+
+    private Call createBooking(Random random) {
+        int item = items.sample(random);
+        long ownerId = data.itemOwnerId(item);
+        long bookerId = randomUser(random);
+        while (bookerId == ownerId && data.getUserCount() > 1) {
+            bookerId = randomUser(random);
+        }
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                .plusDays(1 + random.nextInt(30)).plusMinutes(random.nextInt(24 * 60));
+        LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}", data.itemId(item), start, end);
+        return new Call(Route.CREATE_BOOKING, request("/bookings", bookerId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), ownerId);
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header(USER_HEADER, Long.toString(userId));
+    }
+
+    private long randomUser(Random random) {
+        return data.userId(users.sample(random));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Call {
+        private final Route route;
+        private final HttpRequest request;
+        private final long itemOwnerId;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 
 import java.util.Collection;
 
@@ -16,11 +17,15 @@ import java.util.Collection;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public BookingDto createNewBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false)
+                                       String idempotencyKey,
                                        @RequestBody final BookingShortDto bookingShortDto) {
-        return bookingService.createBooking(userId, bookingShortDto);
+        return idempotencyService.execute("createBooking", userId, idempotencyKey, bookingShortDto,
+                BookingDto.class, () -> bookingService.createBooking(userId, bookingShortDto));
     }
 
     @PatchMapping("/{bookingId}")
@@ -37,4 +37,7 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    private Long version;
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -10,11 +11,37 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByItem(Item item);
 
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner JOIN FETCH b.booker " +
+            "WHERE b.id = :bookingId")
+    Optional<Booking> findByIdWithItemAndBooker(Long bookingId);
+
+    /**
+     * Находит бронирование, только если userId — его автор или хозяин вещи.
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH i.owner o JOIN FETCH b.booker bk " +
+            "WHERE b.id = :bookingId AND (o.id = :userId OR bk.id = :userId)")
+    Optional<Booking> findByIdForParticipant(Long bookingId, Long userId);
+
+    /**
+     * Меняет статус ожидающего бронирования вещи хозяина ownerId, если его версия всё ещё равна version.
+     *
+     * @return 0, если бронирование изменено после чтения, уже не ожидает решения или вещь принадлежит
+     * другому пользователю
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId " +
+            "AND b.version = :version " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.item IN (SELECT i FROM Item i WHERE i.owner.id = :ownerId)")
+    int decideWaiting(Long bookingId, Long ownerId, Long version, BookingStatus status);
+
     List<Booking> findByItemIdIn(List<Long> items);
 
     List<Booking> findByBooker(User user, Pageable pageable);
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -23,10 +25,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @Slf4j
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
@@ -60,8 +62,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto approveBooking(Long bookingId, Long ownerId, Boolean isApproved) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
-        Booking booking = bookingOptional.orElseThrow(() ->
+        Booking booking = bookingRepository.findByIdWithItemAndBooker(bookingId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Бронирование id %s не найдено", bookingId)));
         if (!booking.getStatus().equals(BookingStatus.WAITING)) {
             throw new BadRequestException("Бронирование было подтверждено ранее или отменено");
@@ -69,8 +70,12 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new ObjectNotFoundException(String.format("Пользователь id %s не является владельцем вещи с бронированием id %s", ownerId, bookingId));
         }
-        booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        bookingRepository.save(booking);
+        BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.decideWaiting(bookingId, ownerId, booking.getVersion(), status) == 0) {
+            throw new ConflictException(String.format("Бронирование id %s решено другим запросом", bookingId));
+        }
+        booking.setStatus(status);
+        booking.setVersion(booking.getVersion() + 1);
         log.info("Пользователь id {} подтвердил бронирование вещи id {}", ownerId, bookingId);
 
         return BookingMapper.toBookingDto(booking);
@@ -78,11 +83,10 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public BookingDto getBooking(Long bookingId, Long userId) {
-        Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
-        Booking booking = bookingOptional.orElseThrow(() -> new ObjectNotFoundException(String.format("Бронирование id %s не найдено", bookingId)));
-        if (!booking.getItem().getOwner().getId().equals(userId) && !booking.getBooker().getId().equals(userId)) {
-            throw new ObjectNotFoundException(String.format("Пользователь id %s не является хозяином вещи и не делал бронирование id %s", userId, bookingId));
-        }
+        Booking booking = bookingRepository.findByIdForParticipant(bookingId, userId).orElseThrow(() ->
+                bookingRepository.existsById(bookingId)
+                        ? new ObjectNotFoundException(String.format("Пользователь id %s не является хозяином вещи и не делал бронирование id %s", userId, bookingId))
+                        : new ObjectNotFoundException(String.format("Бронирование id %s не найдено", bookingId)));
         log.info("Бронирование id {} получено пользователем id {}", bookingId, userId);
         return BookingMapper.toBookingDto(booking);
     }
@@ -121,7 +125,6 @@ public class BookingServiceImpl implements BookingService {
         }
 
         log.info("Список всех бронирований со статусом {} пользователя id {} получен", state, userId);
-        System.out.println("Проверка" + userBookings);
         return userBookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -31,10 +32,31 @@ public class ExceptionsHandler {
         return new ErrorResponse("Conflict 409 " + e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException e) {
+        log.warn("409 {}", e.getMessage());
+        return new ErrorResponse("Conflict 409 " + e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(final OptimisticLockingFailureException e) {
+        log.warn("409 {}", e.getMessage());
+        return new ErrorResponse("Conflict 409 Данные изменены другим запросом, повторите попытку");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBadRequestException(final BadRequestException e) {
         log.info("Bad request error: {}", e.getMessage(), e);
         return new ErrorResponse(e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ErrorResponse handleIdempotencyKeyReusedException(final IdempotencyKeyReusedException e) {
+        log.warn("422 {}", e.getMessage(), e);
+        return new ErrorResponse(e.getMessage());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.idempotency")
+public class IdempotencyProperties {
+    private Duration ttl = Duration.ofHours(24);
+    /**
+     * Как часто из таблицы удаляются ключи старше ttl.
+     */
+    private Duration cleanupInterval = Duration.ofHours(1);
+}
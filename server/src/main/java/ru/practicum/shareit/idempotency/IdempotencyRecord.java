@@ -0,0 +1,39 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "operation", nullable = false)
+    private String operation;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String key;
+
+    @Column(name = "request", nullable = false)
+    private String request;
+
+    @Column(name = "response")
+    private String response;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndOperationAndKey(Long userId, String operation, String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.userId = :userId AND r.operation = :operation AND r.key = :key AND r.created < :before")
+    int deleteExpired(Long userId, String operation, String key, LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.created < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
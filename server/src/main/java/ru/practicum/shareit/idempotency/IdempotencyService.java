@@ -0,0 +1,144 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Хранит ответы на создающие запросы по ключу Idempotency-Key в таблице idempotency_keys, чтобы повтор
+ * запроса возвращал сохранённый ответ, а не создавал ещё одну запись, на каком бы экземпляре сервера
+ * он ни оказался.
+ */
+@Service
+@Slf4j
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyService {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long cleanupIntervalNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextCleanupNanos;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, IdempotencyProperties properties) {
+        this(repository, transactionManager, objectMapper, properties, System::nanoTime);
+    }
+
+    IdempotencyService(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper, IdempotencyProperties properties, LongSupplier clock) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = properties.getTtl();
+        this.cleanupIntervalNanos = properties.getCleanupInterval().toNanos();
+        this.clock = clock;
+        this.nextCleanupNanos = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Выполняет action один раз для тройки (пользователь, операция, ключ). Ключ записывается в одной
+     * транзакции с action и сохранённым ответом: повтор, пришедший во время первого запроса, ждёт на
+     * уникальном индексе его фиксации и получает сохранённый ответ, а после отката первого запроса
+     * выполняется сам. Ответы с ошибкой не сохраняются. Без ключа action выполняется как обычно.
+     */
+    public <T> T execute(String operation, Long userId, String key, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(String.format("Ключ %s длиннее %d символов", IDEMPOTENCY_KEY_HEADER,
+                    MAX_KEY_LENGTH));
+        }
+        cleanupIfDue();
+        String requestJson = toJson(request);
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Optional<T> response = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                repository.deleteExpired(userId, operation, key, now.minus(ttl));
+                IdempotencyRecord record;
+                try {
+                    record = repository.saveAndFlush(IdempotencyRecord.builder()
+                            .userId(userId)
+                            .operation(operation)
+                            .key(key)
+                            .request(requestJson)
+                            .created(now)
+                            .build());
+                } catch (DataIntegrityViolationException e) {
+                    status.setRollbackOnly();
+                    return Optional.empty();
+                }
+                T result = action.get();
+                record.setResponse(toJson(result));
+                return Optional.of(result);
+            });
+            if (response.isPresent()) {
+                return response.get();
+            }
+            Optional<IdempotencyRecord> stored = transactionTemplate.execute(status ->
+                    repository.findByUserIdAndOperationAndKey(userId, operation, key));
+            if (stored.isPresent()) {
+                if (!stored.get().getRequest().equals(requestJson)) {
+                    throw new IdempotencyKeyReusedException(
+                            String.format("Ключ %s уже использован для другого запроса", key));
+                }
+                log.info("Повтор запроса {} пользователя id {} с ключом {}", operation, userId, key);
+                return fromJson(stored.get().getResponse(), responseType);
+            }
+            // ключ успел устареть и был удалён между вставкой и чтением, пробуем снова
+        }
+        throw new IllegalStateException(String.format("Не удалось записать ключ %s запроса %s", key, operation));
+    }
+
+    private void cleanupIfDue() {
+        long now = clock.getAsLong();
+        long next = nextCleanupNanos.get();
+        if (now - next < 0 || !nextCleanupNanos.compareAndSet(next, now + cleanupIntervalNanos)) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        if (deleted != null && deleted > 0) {
+            log.info("Удалено {} устаревших ключей идемпотентности", deleted);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать сохранённый ответ " + type.getSimpleName(), e);
+        }
+    }
+}
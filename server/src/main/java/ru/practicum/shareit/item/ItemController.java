@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentShortDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -19,11 +20,15 @@ import java.util.Collection;
 public class ItemController {
     private final ItemService itemService;
     private final CommentService commentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public ItemDto createNewItem(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                 @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false)
+                                 String idempotencyKey,
                                  @RequestBody ItemDto itemDto) {
-        return itemService.createItem(userId, itemDto);
+        return idempotencyService.execute("createItem", userId, idempotencyKey, itemDto,
+                ItemDto.class, () -> itemService.createItem(userId, itemDto));
     }
 
     @PatchMapping("/{itemId}")
@@ -56,7 +61,10 @@ public class ItemController {
     @PostMapping("/{itemId}/comment")
     public CommentDto createItemComment(@RequestBody final CommentShortDto commentShortDto,
                                         @PathVariable final Long itemId,
-                                        @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return commentService.addNewComment(commentShortDto, itemId, userId);
+                                        @RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false)
+                                        String idempotencyKey) {
+        return idempotencyService.execute("createComment:" + itemId, userId, idempotencyKey, commentShortDto,
+                CommentDto.class, () -> commentService.addNewComment(commentShortDto, itemId, userId));
     }
 }
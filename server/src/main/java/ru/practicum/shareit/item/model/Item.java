@@ -34,4 +34,7 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Optional;
+
+public interface ItemPatchRepository {
+    /**
+     * Меняет переданные поля вещи одним запросом; null оставляет поле как есть, хотя бы одно поле должно быть задано.
+     * Проверка хозяина входит в условие запроса.
+     *
+     * @return вещь после изменения с владельцем-ссылкой или пусто, если вещи нет или у неё другой хозяин
+     */
+    Optional<Item> patch(Long itemId, Long ownerId, @Nullable String name, @Nullable String description,
+                         @Nullable Boolean available);
+}
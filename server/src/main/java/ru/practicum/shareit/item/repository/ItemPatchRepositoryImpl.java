@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.jdbc.ReturningUpdate;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+class ItemPatchRepositoryImpl implements ItemPatchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Item> patch(Long itemId, Long ownerId, String name, String description, Boolean available) {
+        return new ReturningUpdate(Item.class, "items", "id", "name", "description", "available", "request_id")
+                .set("name", name)
+                .set("description", description)
+                .set("available", available)
+                .increment("version")
+                .whereId(itemId)
+                .where("owner_id", ownerId)
+                .execute(entityManager)
+                .map(row -> Item.builder()
+                        .id(((Number) row[0]).longValue())
+                        .name((String) row[1])
+                        .description((String) row[2])
+                        .available((Boolean) row[3])
+                        .owner(entityManager.getReference(User.class, ownerId))
+                        .requestId(row[4] == null ? null : ((Number) row[4]).longValue())
+                        .build());
+    }
+}
@@ -9,7 +9,7 @@ import ru.practicum.shareit.user.model.User;
 import java.util.Collection;
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemPatchRepository {
     @Query(" select i from Item i " +
             "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
@@ -23,4 +23,7 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.owner = :user")
     List<Item> findByOwnerWithOwner(User user, Pageable pageable);
 
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.available = true AND i.id > :afterId ORDER BY i.id")
+    List<Item> findAvailableAfter(Long afterId, Pageable pageable);
+
 }
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс вещей с ранжированием BM25. Слова приводятся к нижнему регистру, у слов длиннее
+ * четырёх букв отбрасываются конечные гласные, чтобы «дрель», «дрели» и «дрелью» совпадали.
+ */
+public class Bm25Index {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_STEM_LENGTH = 4;
+    private static final String VOWELS = "аеёиоуыэюяьйaeiouy";
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    /**
+     * Добавляет вещь или заменяет прежний текст вещи с тем же id.
+     */
+    public void put(long itemId, long ownerId, String text) {
+        List<String> terms = tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+            documents.put(itemId, new Document(ownerId, terms.size(), frequencies.keySet()));
+            totalLength += terms.size();
+            frequencies.forEach((term, count) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(itemId, count));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param excludeOwnerId вещи этого владельца не попадают в выдачу
+     * @return не более limit вещей по убыванию оценки; вещи без общих слов с запросом не возвращаются
+     */
+    public List<Match> search(String text, int limit, long excludeOwnerId) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(text));
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int count = documents.size();
+            if (count == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / count;
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((itemId, frequency) -> {
+                    Document document = documents.get(itemId);
+                    if (document.ownerId == excludeOwnerId) {
+                        return;
+                    }
+                    double norm = K1 * (1 - B + B * document.length / averageLength);
+                    scores.merge(itemId, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        PriorityQueue<Match> top = new PriorityQueue<>(Comparator.comparingDouble(Match::getScore));
+        scores.forEach((itemId, score) -> {
+            top.add(new Match(itemId, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<Match> matches = new ArrayList<>(top);
+        matches.sort(Comparator.comparingDouble(Match::getScore).reversed().thenComparing(Match::getItemId));
+        return matches;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() < 2) {
+                continue;
+            }
+            int end = word.length();
+            while (end > MIN_STEM_LENGTH && VOWELS.indexOf(word.charAt(end - 1)) >= 0) {
+                end--;
+            }
+            terms.add(word.substring(0, end));
+        }
+        return terms;
+    }
+
+    private void removeLocked(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        for (String term : document.terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Match {
+        private final long itemId;
+        private final double score;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Document {
+        private final long ownerId;
+        private final int length;
+        private final Set<String> terms;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Публикуется при создании и изменении вещи; индекс поиска и кэш вещей по запросам обновляются
+ * после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+    private final long itemId;
+    private final long ownerId;
+    private final String name;
+    private final String description;
+    private final boolean available;
+    private final Long requestId;
+}
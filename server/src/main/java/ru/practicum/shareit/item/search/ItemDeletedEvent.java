@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Публикуется при удалении вещи; индекс поиска и кэш вещей по запросам забывают её после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemDeletedEvent {
+    private final long itemId;
+    private final Long requestId;
+}
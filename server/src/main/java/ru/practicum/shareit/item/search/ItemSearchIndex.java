@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Индекс доступных вещей в памяти. Строится из базы при старте и раз в rebuild-interval,
+ * а между перестроениями обновляется событиями об изменении вещей через этот экземпляр.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ItemSearchProperties.class)
+public class ItemSearchIndex implements SmartInitializingSingleton, AutoCloseable {
+    private final ItemRepository itemRepository;
+    private final ItemSearchProperties properties;
+    private volatile Bm25Index index = new Bm25Index();
+    private volatile Bm25Index building;
+    private ScheduledExecutorService rebuilder;
+
+    public ItemSearchIndex(ItemRepository itemRepository, ItemSearchProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.properties = properties;
+        Gauge.builder("shareit.item.search.documents", this, ItemSearchIndex::size).register(meterRegistry);
+    }
+
+    /**
+     * @param excludeOwnerId вещи этого пользователя не предлагаются
+     */
+    public List<Bm25Index.Match> search(String text, int limit, long excludeOwnerId) {
+        return index.search(text, limit, excludeOwnerId);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        apply(index, event);
+        Bm25Index next = building;
+        if (next != null) {
+            apply(next, event);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        index.remove(event.getItemId());
+        Bm25Index next = building;
+        if (next != null) {
+            next.remove(event.getItemId());
+        }
+    }
+
+    /**
+     * Строит новый индекс рядом с действующим и подменяет его целиком, поэтому поиск не видит
+     * частично заполненного индекса.
+     */
+    void rebuild() {
+        Bm25Index next = new Bm25Index();
+        building = next;
+        try {
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAvailableAfter(lastId, PageRequest.ofSize(properties.getRebuildBatchSize()));
+                for (Item item : batch) {
+                    next.put(item.getId(), item.getOwner().getId(), textOf(item.getName(), item.getDescription()));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == properties.getRebuildBatchSize());
+            index = next;
+        } finally {
+            building = null;
+        }
+        log.debug("Индекс поиска вещей перестроен, вещей: {}", next.size());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getRebuildInterval().toMillis();
+        rebuilder.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось перестроить индекс поиска вещей: {}", e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    private static void apply(Bm25Index target, ItemChangedEvent event) {
+        if (event.isAvailable()) {
+            target.put(event.getItemId(), event.getOwnerId(), textOf(event.getName(), event.getDescription()));
+        } else {
+            target.remove(event.getItemId());
+        }
+    }
+
+    private static String textOf(String name, String description) {
+        return name + " " + description;
+    }
+}
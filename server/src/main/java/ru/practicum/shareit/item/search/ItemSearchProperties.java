@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.item-search")
+public class ItemSearchProperties {
+    /**
+     * Как часто индекс перестраивается из базы, подбирая вещи, изменённые через другие экземпляры сервера.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+    private int rebuildBatchSize = 1000;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 
 @Service
+@Timed("shareit.service")
 @Slf4j
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -16,7 +18,13 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemDeletedEvent;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.request.feed.ItemResponseFeed;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.retry.RetryOnConflict;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -24,6 +32,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
@@ -34,6 +43,8 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Collection<ItemDto> getUserItems(Long userId, Integer from, Integer size) {
         User owner = userRepository.findById(userId).orElseThrow(() ->
@@ -82,13 +93,19 @@ public class ItemServiceImpl implements ItemService {
         User owner = userOptional.orElseThrow(() -> new ObjectNotFoundException(String.format("Пользователь id %s не найден", userId)));
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(owner);
+        ItemRequest request = null;
         if (item.getRequestId() != null) {
-            requestRepository.findById(item.getRequestId()).orElseThrow(() ->
+            request = requestRepository.findById(item.getRequestId()).orElseThrow(() ->
                     new ObjectNotFoundException(String.format("Запрос id %s не найден", item.getRequestId())));
         }
         itemRepository.save(item);
         log.info("Пользователь с id {} добавил новую вещь", owner.getId());
-        return ItemMapper.toItemDto(item);
+        eventPublisher.publishEvent(changedEvent(item));
+        ItemDto createdItem = ItemMapper.toItemDto(item);
+        if (request != null) {
+            outboxService.append(ItemResponseFeed.EVENT_TYPE, request.getRequestor().getId(), createdItem);
+        }
+        return createdItem;
     }
 
     @Override
@@ -107,18 +124,27 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        Optional<Item> itemOptional = itemRepository.findById(itemId);
-        Item itemForUpdate = itemOptional.orElseThrow(() -> new ObjectNotFoundException(String.format("Вещь id %s не найдена", itemId)));
-        if (!itemForUpdate.getOwner().getId().equals(userId)) {
-            throw new ValidationException("Обновить вещь может только её хозяин!");
+        if (itemDto.getName() == null && itemDto.getDescription() == null && itemDto.getAvailable() == null) {
+            Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                    new ObjectNotFoundException(String.format("Вещь id %s не найдена", itemId)));
+            if (!item.getOwner().getId().equals(userId)) {
+                throw new ValidationException("Обновить вещь может только её хозяин!");
+            }
+            return ItemMapper.toItemDto(item);
         }
-        Optional.ofNullable(itemDto.getName()).ifPresent(itemForUpdate::setName);
-        Optional.ofNullable(itemDto.getDescription()).ifPresent(itemForUpdate::setDescription);
-        Optional.ofNullable(itemDto.getAvailable()).ifPresent(itemForUpdate::setAvailable);
+        Item updated = itemRepository.patch(itemId, userId, itemDto.getName(), itemDto.getDescription(),
+                itemDto.getAvailable()).orElseThrow(() -> itemRepository.existsById(itemId)
+                ? new ValidationException("Обновить вещь может только её хозяин!")
+                : new ObjectNotFoundException(String.format("Вещь id %s не найдена", itemId)));
 
         log.info("Вещь id {} обновлена", itemId);
-        itemRepository.save(itemForUpdate);
-        return ItemMapper.toItemDto(itemForUpdate);
+        eventPublisher.publishEvent(changedEvent(updated));
+        return ItemMapper.toItemDto(updated);
+    }
+
+    private static ItemChangedEvent changedEvent(Item item) {
+        return new ItemChangedEvent(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getRequestId());
     }
 
     @Override
@@ -129,8 +155,12 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
+    @RetryOnConflict
     public void deleteItem(Long itemId) {
+        Optional<Item> item = itemRepository.findById(itemId);
         itemRepository.deleteById(itemId);
+        item.ifPresent(deleted -> eventPublisher.publishEvent(new ItemDeletedEvent(deleted.getId(),
+                deleted.getRequestId())));
     }
 
     private int compareBookingDates(ItemDto itemDto1, ItemDto itemDto2) {
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбирает размер пула Hikari в заданных границах. Пул растёт, пока потоки ждут соединений, а время
+ * ответа базы держится около базового; если ответы замедлились, база уже перегружена и пул уменьшается.
+ * Простаивающий пул медленно сжимается. Ограничитель конкурентности, если он есть, меняется вместе с пулом.
+ */
+@Slf4j
+public class AdaptivePoolSizer implements StatementListener, SmartInitializingSingleton, AutoCloseable {
+    /**
+     * Доля нового замера, на которую базовое время ответа подтягивается вверх: база со временем растёт
+     * вместе с данными, и навсегда запомненный минимум считал бы её перегруженной.
+     */
+    private static final double BASELINE_DRIFT = 0.05;
+    /**
+     * На микросекундных ответах кратный рост ничего не значит, поэтому замедление меньше этого не учитывается.
+     */
+    private static final double MIN_SLOWDOWN_MILLIS = 1.0;
+
+    private final PoolProperties.Adaptive properties;
+    private final ConnectionTracker tracker;
+    private final ObjectProvider<DataSource> dataSources;
+    private final LatencyWindow responseWindow = new LatencyWindow();
+    private final double acquireTargetMillis;
+    private double baselineMillis = -1;
+    private HikariDataSource hikari;
+    private ConcurrencyLimitingDataSource limiter;
+    private ScheduledExecutorService scheduler;
+
+    public AdaptivePoolSizer(PoolProperties properties, ConnectionTracker tracker,
+                             ObjectProvider<DataSource> dataSources) {
+        this.properties = properties.getAdaptive();
+        this.tracker = tracker;
+        this.dataSources = dataSources;
+        this.acquireTargetMillis = this.properties.getAcquireTarget().toNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public Object beforeExecute(String sql) {
+        return null;
+    }
+
+    @Override
+    public void afterExecute(Object context, String sql, List<Object> parameters, long elapsedNanos,
+                             Throwable error) {
+        if (error == null) {
+            responseWindow.record(elapsedNanos);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DataSource dataSource = dataSources.getIfUnique();
+        hikari = dataSource == null ? null : unwrap(dataSource, HikariDataSource.class);
+        if (hikari == null) {
+            log.warn("Пул Hikari не найден, размер пула не подстраивается");
+            return;
+        }
+        limiter = unwrap(dataSource, ConcurrencyLimitingDataSource.class);
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        if (config.getMinimumIdle() > properties.getMinSize()) {
+            config.setMinimumIdle(properties.getMinSize());
+        }
+        resize(hikari.getMaximumPoolSize(), clamp(hikari.getMaximumPoolSize()));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::adjust, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void adjust() {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        int size = hikari.getMaximumPoolSize();
+        int waiting = pool.getThreadsAwaitingConnection() + (limiter != null ? limiter.getQueueLength() : 0);
+        try {
+            resize(size, nextSize(size, tracker.getAcquireWindow().drainMeanMillis(), waiting,
+                    pool.getActiveConnections(), responseWindow.drainMeanMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось подстроить размер пула: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param acquireMillis  среднее время получения соединения за окно или -1, если соединений не брали
+     * @param responseMillis среднее время выполнения запроса за окно или -1, если запросов не было
+     */
+    int nextSize(int size, double acquireMillis, int waiting, int active, double responseMillis) {
+        if (responseMillis >= 0) {
+            baselineMillis = baselineMillis < 0 || responseMillis < baselineMillis ? responseMillis
+                    : baselineMillis + (responseMillis - baselineMillis) * BASELINE_DRIFT;
+            if (responseMillis > baselineMillis * properties.getResponseTolerance()
+                    && responseMillis - baselineMillis > MIN_SLOWDOWN_MILLIS) {
+                return clamp(size - properties.getStep());
+            }
+        }
+        if (waiting > 0 || acquireMillis > acquireTargetMillis) {
+            return clamp(size + properties.getStep());
+        }
+        if (active < size / 2) {
+            return clamp(size - 1);
+        }
+        return clamp(size);
+    }
+
+    private void resize(int size, int newSize) {
+        if (newSize == size) {
+            return;
+        }
+        log.info("Размер пула соединений изменён с {} на {}", size, newSize);
+        hikari.getHikariConfigMXBean().setMaximumPoolSize(newSize);
+        if (limiter != null) {
+            limiter.setMaxConcurrency(newSize);
+        }
+    }
+
+    private int clamp(int size) {
+        return Math.max(properties.getMinSize(), Math.min(properties.getMaxSize(), size));
+    }
+
+    @Nullable
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
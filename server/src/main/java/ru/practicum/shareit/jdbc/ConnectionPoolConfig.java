@@ -0,0 +1,60 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(PoolProperties.class)
+public class ConnectionPoolConfig {
+
+    @Bean
+    public ConnectionTracker connectionTracker(PoolProperties properties) {
+        return new ConnectionTracker(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.datasource.pool.adaptive.enabled", havingValue = "true")
+    public AdaptivePoolSizer adaptivePoolSizer(PoolProperties properties, ConnectionTracker tracker,
+                                               ObjectProvider<DataSource> dataSources) {
+        return new AdaptivePoolSizer(properties, tracker, dataSources);
+    }
+
+    /**
+     * Оборачивает пул сразу поверх ограничителя конкурентности, чтобы время получения соединения
+     * включало ожидание на его семафоре, но не зависело от ленивого прокси маршрутизации.
+     */
+    @Bean
+    public static ConnectionTrackingPostProcessor connectionTrackingPostProcessor(
+            ObjectProvider<ConnectionTracker> tracker) {
+        return new ConnectionTrackingPostProcessor(tracker);
+    }
+
+    static class ConnectionTrackingPostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<ConnectionTracker> tracker;
+
+        ConnectionTrackingPostProcessor(ObjectProvider<ConnectionTracker> tracker) {
+            this.tracker = tracker;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource || bean instanceof ConcurrencyLimitingDataSource) {
+                return new TrackedDataSource((DataSource) bean, tracker.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Учитывает соединения, выданные {@link TrackedDataSource}: время получения и удержания, а также утечки.
+ * Соединение, которое удерживается дольше порога, попадает в лог один раз вместе со стеком удерживающего
+ * потока. Стек места получения снимается только при включённом capture-acquire-stack: на каждом
+ * получении это обходится дорого.
+ */
+@Slf4j
+public class ConnectionTracker implements MeterBinder, SmartInitializingSingleton, AutoCloseable {
+    private final long leakThresholdNanos;
+    private final long leakCheckIntervalMillis;
+    private final boolean captureAcquireStack;
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final LatencyWindow acquireWindow = new LatencyWindow();
+    private final AtomicInteger leaked = new AtomicInteger();
+    private volatile Timer acquireTimer;
+    private volatile Timer usageTimer;
+    private volatile Counter leakCounter;
+    private ScheduledExecutorService checker;
+
+    public ConnectionTracker(PoolProperties properties) {
+        this.leakThresholdNanos = properties.getLeakDetectionThreshold().toNanos();
+        this.leakCheckIntervalMillis = properties.getLeakCheckInterval().toMillis();
+        this.captureAcquireStack = leakThresholdNanos > 0 && properties.isCaptureAcquireStack();
+    }
+
+    Lease acquired(long acquireNanos) {
+        recordAcquire(acquireNanos);
+        Lease lease = new Lease(Thread.currentThread(),
+                captureAcquireStack ? new Throwable("Соединение получено здесь") : null);
+        leases.add(lease);
+        return lease;
+    }
+
+    void acquireFailed(long acquireNanos) {
+        recordAcquire(acquireNanos);
+    }
+
+    void released(Lease lease) {
+        if (!leases.remove(lease)) {
+            return;
+        }
+        long heldNanos = System.nanoTime() - lease.acquiredNanos;
+        Timer timer = usageTimer;
+        if (timer != null) {
+            timer.record(heldNanos, TimeUnit.NANOSECONDS);
+        }
+        if (lease.reported) {
+            leaked.decrementAndGet();
+            log.info("Соединение, удерживавшееся потоком {}, возвращено через {} мс",
+                    lease.threadName, TimeUnit.NANOSECONDS.toMillis(heldNanos));
+        }
+    }
+
+    /**
+     * @return число соединений, впервые признанных утечкой при этой проверке
+     */
+    int checkLeaks() {
+        if (leakThresholdNanos <= 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        int found = 0;
+        for (Lease lease : leases) {
+            long heldNanos = now - lease.acquiredNanos;
+            if (!lease.reported && heldNanos > leakThresholdNanos) {
+                lease.reported = true;
+                leaked.incrementAndGet();
+                found++;
+                Counter counter = leakCounter;
+                if (counter != null) {
+                    counter.increment();
+                }
+                log.warn("Соединение удерживается потоком {} уже {} мс, возможна утечка",
+                        lease.threadName, TimeUnit.NANOSECONDS.toMillis(heldNanos), lease.stack());
+            }
+        }
+        return found;
+    }
+
+    LatencyWindow getAcquireWindow() {
+        return acquireWindow;
+    }
+
+    int getOpenConnections() {
+        return leases.size();
+    }
+
+    int getLeakedConnections() {
+        return leaked.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        acquireTimer = Timer.builder("shareit.db.connection.acquire")
+                .description("Время получения соединения, включая ожидание пула и ограничителя")
+                .register(registry);
+        usageTimer = Timer.builder("shareit.db.connection.usage")
+                .description("Время от получения соединения до его возврата")
+                .register(registry);
+        leakCounter = Counter.builder("shareit.db.connection.leaks").register(registry);
+        Gauge.builder("shareit.db.connection.leaked", leaked, AtomicInteger::get).register(registry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (leakThresholdNanos <= 0) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-leak-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkLeaks, leakCheckIntervalMillis, leakCheckIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    private void recordAcquire(long acquireNanos) {
+        acquireWindow.record(acquireNanos);
+        Timer timer = acquireTimer;
+        if (timer != null) {
+            timer.record(acquireNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static final class Lease {
+        private final Thread owner;
+        private final String threadName;
+        private final Throwable acquireStack;
+        private final long acquiredNanos = System.nanoTime();
+        private volatile boolean reported;
+
+        private Lease(Thread owner, Throwable acquireStack) {
+            this.owner = owner;
+            this.threadName = owner.getName();
+            this.acquireStack = acquireStack;
+        }
+
+        Throwable getAcquireStack() {
+            return acquireStack;
+        }
+
+        private Throwable stack() {
+            if (acquireStack != null) {
+                return acquireStack;
+            }
+            Throwable current = new Throwable("Поток " + threadName + " сейчас здесь");
+            current.setStackTrace(owner.getStackTrace());
+            return current;
+        }
+    }
+}
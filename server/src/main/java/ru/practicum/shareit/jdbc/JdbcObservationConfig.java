@@ -0,0 +1,47 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+public class JdbcObservationConfig {
+
+    /**
+     * Оборачивает DataSource последним, поверх остальных обёрток, и только если есть слушатели.
+     * Метод объявлен с конкретным типом: иначе Spring не видит Ordered до создания постпроцессора
+     * и применяет постпроцессоры DataSource в порядке объявления.
+     */
+    @Bean
+    public static ObservedDataSourcePostProcessor observedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new ObservedDataSourcePostProcessor(listeners);
+    }
+
+    static class ObservedDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<StatementListener> listeners;
+
+        ObservedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof ObservedDataSource) {
+                return bean;
+            }
+            List<StatementListener> statementListeners = listeners.orderedStream().collect(Collectors.toList());
+            return statementListeners.isEmpty() ? bean : new ObservedDataSource((DataSource) bean, statementListeners);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.jdbc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накапливает время операций между двумя опросами и отдаёт среднее за прошедшее окно.
+ */
+class LatencyWindow {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    void record(long nanos) {
+        totalNanos.add(nanos);
+        count.increment();
+    }
+
+    /**
+     * @return среднее время в миллисекундах за окно или -1, если операций не было; окно начинается заново
+     */
+    double drainMeanMillis() {
+        long operations = count.sumThenReset();
+        long nanos = totalNanos.sumThenReset();
+        return operations == 0 ? -1 : nanos / 1_000_000.0 / operations;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Оборачивает соединения и запросы, чтобы сообщать {@link StatementListener} о каждом выполненном SQL
+ * вместе с параметрами PreparedStatement и временем выполнения.
+ */
+public class ObservedDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final List<StatementListener> listeners;
+
+    public ObservedDataSource(DataSource targetDataSource, List<StatementListener> listeners) {
+        super(targetDataSource);
+        this.listeners = List.copyOf(listeners);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observed(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+
+    private Connection observed(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement) {
+                return observed(CallableStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement) {
+                return observed(PreparedStatement.class, (Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement) {
+                return observed(Statement.class, (Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    private <T extends Statement> T observed(Class<T> type, Statement statement, String preparedSql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(type, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters.clear();
+            } else if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? (String) args[0] : "";
+                return execute(statement, method, args, sql, new ArrayList<>(parameters.values()));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private Object execute(Statement statement, Method method, Object[] args, String sql, List<Object> parameters)
+            throws Throwable {
+        Object[] contexts = new Object[listeners.size()];
+        for (int i = 0; i < contexts.length; i++) {
+            contexts[i] = listeners.get(i).beforeExecute(sql);
+        }
+        long startNanos = System.nanoTime();
+        Throwable error = null;
+        try {
+            return invoke(statement, method, args);
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            for (int i = contexts.length - 1; i >= 0; i--) {
+                listeners.get(i).afterExecute(contexts[i], sql, parameters, elapsedNanos, error);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ObservedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Observed" + target;
+                        default:
+                            return handler.invoke(proxy, method, args);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.pool")
+public class PoolProperties {
+    /**
+     * Сколько соединение может удерживаться, прежде чем считаться утечкой; 0 отключает проверку.
+     */
+    private Duration leakDetectionThreshold = Duration.ofSeconds(30);
+    private Duration leakCheckInterval = Duration.ofSeconds(5);
+    /**
+     * Снимать стек при каждом получении соединения, чтобы лог утечки показывал место получения.
+     * Без этого в лог попадает стек, на котором удерживающий поток стоит в момент проверки.
+     */
+    private boolean captureAcquireStack = false;
+    private Adaptive adaptive = new Adaptive();
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+        private boolean enabled = false;
+        private int minSize = 5;
+        private int maxSize = 30;
+        private int step = 2;
+        private Duration interval = Duration.ofSeconds(10);
+        /**
+         * Среднее время получения соединения, выше которого пул увеличивается.
+         */
+        private Duration acquireTarget = Duration.ofMillis(5);
+        /**
+         * Во сколько раз время ответа базы может превысить базовое, прежде чем пул начнёт уменьшаться.
+         */
+        private double responseTolerance = 2.0;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Отдаёт соединения реплики внутри транзакций readOnly и основной базы во всех остальных случаях.
+ * Решение принимается при получении соединения, поэтому источник должен быть обёрнут
+ * в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: к первому запросу признак
+ * readOnly транзакции уже выставлен.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final ReplicaPools replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPools replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineTarget().getConnection(username, password);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private DataSource determineTarget() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicas.recordRoute(PRIMARY, "write");
+            return primary;
+        }
+        ReplicaPools.ReplicaPool replica = replicas.choose();
+        if (replica == null) {
+            replicas.recordRoute(PRIMARY, "fallback");
+            return primary;
+        }
+        replicas.recordRoute(replica.getName(), "read");
+        return replica.getDataSource();
+    }
+}
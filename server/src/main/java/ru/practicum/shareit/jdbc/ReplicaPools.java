@@ -0,0 +1,164 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Пулы соединений реплик и проверка их отставания. Реплика участвует в чтении, только если последняя
+ * проверка прошла и отставание не больше допустимого; до первой проверки чтение идёт в основную базу.
+ */
+@Slf4j
+public class ReplicaPools implements MeterBinder, SmartInitializingSingleton, AutoCloseable {
+    private final List<ReplicaPool> pools;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile MeterRegistry meterRegistry;
+    private ScheduledExecutorService checker;
+
+    public ReplicaPools(ReplicaProperties properties) {
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.checkIntervalMillis = properties.getCheckInterval().toMillis();
+        this.lagQuery = properties.getLagQuery();
+        this.pools = properties.getInstances().stream().map(ReplicaPool::new).collect(Collectors.toList());
+    }
+
+    /**
+     * @return пул исправной реплики по кругу или null, если читать из реплик сейчас нельзя
+     */
+    @Nullable
+    ReplicaPool choose() {
+        int size = pools.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool pool = pools.get((start + i) % size);
+            if (pool.available) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    void recordRoute(String target, String reason) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.counter("shareit.datasource.routing", "target", target, "reason", reason).increment();
+        }
+    }
+
+    void checkAll() {
+        for (ReplicaPool pool : pools) {
+            pool.check();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        for (ReplicaPool pool : pools) {
+            pool.dataSource.setMetricRegistry(registry);
+            Gauge.builder("shareit.datasource.replica.lag", pool, p -> p.lagMillis / 1000.0)
+                    .tag("replica", pool.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("shareit.datasource.replica.available", pool, p -> p.available ? 1 : 0)
+                    .tag("replica", pool.name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (pools.isEmpty()) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkAll, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        pools.forEach(pool -> pool.dataSource.close());
+    }
+
+    class ReplicaPool {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean available;
+        private volatile long lagMillis = -1;
+
+        ReplicaPool(ReplicaProperties.Replica replica) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + replica.getName());
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername());
+            config.setPassword(replica.getPassword());
+            config.setMaximumPoolSize(replica.getMaximumPoolSize());
+            config.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1);
+            this.name = replica.getName();
+            this.dataSource = new HikariDataSource(config);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        DataSource getDataSource() {
+            return dataSource;
+        }
+
+        boolean isAvailable() {
+            return available;
+        }
+
+        private void check() {
+            boolean wasAvailable = available;
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet result = statement.executeQuery(lagQuery)) {
+                result.next();
+                lagMillis = Math.round(result.getDouble(1) * 1000);
+                available = lagMillis <= maxLagMillis;
+                if (!available && wasAvailable) {
+                    log.warn("Реплика {} отстаёт на {} мс, чтение переключено на основную базу", name, lagMillis);
+                }
+            } catch (SQLException | RuntimeException e) {
+                available = false;
+                if (wasAvailable) {
+                    log.warn("Реплика {} недоступна, чтение переключено на основную базу: {}", name, e.getMessage());
+                }
+            }
+            if (available && !wasAvailable) {
+                log.info("Реплика {} доступна для чтения, отставание {} мс", name, lagMillis);
+            }
+        }
+    }
+}
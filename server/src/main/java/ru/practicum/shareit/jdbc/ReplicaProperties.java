@@ -0,0 +1,37 @@
+package ru.practicum.shareit.jdbc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource.replicas")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private Duration maxLag = Duration.ofSeconds(10);
+    private Duration checkInterval = Duration.ofSeconds(5);
+    /**
+     * Отставание реплики в секундах. Реплика, применившая всё полученное, отстаёт на 0, даже если
+     * последняя транзакция была давно: без записей на основной базе время с неё растёт и без отставания.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+    private List<Replica> instances = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+}
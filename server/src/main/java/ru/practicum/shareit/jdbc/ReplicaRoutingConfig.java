@@ -0,0 +1,55 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaPools replicaPools(ReplicaProperties properties) {
+        return new ReplicaPools(properties);
+    }
+
+    /**
+     * Оборачивает основной DataSource после ограничителя конкурентности, но до наблюдения за запросами,
+     * чтобы слушатели видели запросы и к репликам.
+     */
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaPools> replicaPools) {
+        return new ReplicaRoutingPostProcessor(replicaPools);
+    }
+
+    static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<ReplicaPools> replicaPools;
+
+        ReplicaRoutingPostProcessor(ObjectProvider<ReplicaPools> replicaPools) {
+            this.replicaPools = replicaPools;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof LazyConnectionDataSourceProxy
+                    || bean instanceof ObservedDataSource) {
+                return bean;
+            }
+            return new LazyConnectionDataSourceProxy(
+                    new ReadWriteRoutingDataSource((DataSource) bean, replicaPools.getObject()));
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.jdbc;
+
+import org.hibernate.Session;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * UPDATE одной строки, возвращающий её новые значения тем же запросом: UPDATE ... RETURNING в PostgreSQL
+ * и SELECT ... FROM FINAL TABLE (UPDATE ...) в H2, которая не знает RETURNING. В SET попадают только
+ * столбцы с переданными значениями. Имена таблицы и столбцов подставляются в SQL как есть и не должны
+ * приходить от клиента.
+ * Запрос идёт мимо контекста персистентности, поэтому сущность с тем же id отсоединяется от него:
+ * следующее чтение в той же транзакции увидит новые значения.
+ */
+public class ReturningUpdate {
+    private final Class<?> entityType;
+    private final String table;
+    private final List<String> returning;
+    private final Map<String, Object> set = new LinkedHashMap<>();
+    private final Map<String, Object> where = new LinkedHashMap<>();
+    private final List<String> increments = new ArrayList<>();
+    private Object id;
+
+    public ReturningUpdate(Class<?> entityType, String table, String... returning) {
+        this.entityType = entityType;
+        this.table = table;
+        this.returning = List.of(returning);
+    }
+
+    /**
+     * Пропускает столбец, если value равно null.
+     */
+    public ReturningUpdate set(String column, @Nullable Object value) {
+        if (value != null) {
+            set.put(column, value);
+        }
+        return this;
+    }
+
+    /**
+     * Увеличивает столбец на единицу, если обновляется хотя бы один столбец из set: так растёт версия строки.
+     */
+    public ReturningUpdate increment(String column) {
+        increments.add(column);
+        return this;
+    }
+
+    public ReturningUpdate whereId(Object id) {
+        this.id = id;
+        return where("id", id);
+    }
+
+    public ReturningUpdate where(String column, Object value) {
+        where.put(column, value);
+        return this;
+    }
+
+    /**
+     * @return значения столбцов returning в порядке объявления или пусто, если условию не отвечает ни одна строка
+     */
+    public Optional<Object[]> execute(EntityManager entityManager) {
+        if (set.isEmpty() || id == null) {
+            throw new IllegalStateException("Не заданы id или столбцы для обновления в " + table);
+        }
+        String update = "UPDATE " + table
+                + " SET " + Stream.concat(
+                        set.keySet().stream().map(column -> column + " = :set_" + column),
+                        increments.stream().map(column -> column + " = " + column + " + 1"))
+                .collect(Collectors.joining(", "))
+                + " WHERE " + where.keySet().stream().map(column -> column + " = :where_" + column)
+                .collect(Collectors.joining(" AND "));
+        String columns = String.join(", ", returning);
+        String sql = supportsReturning(entityManager)
+                ? update + " RETURNING " + columns
+                : "SELECT " + columns + " FROM FINAL TABLE (" + update + ")";
+        Query query = entityManager.createNativeQuery(sql);
+        set.forEach((column, value) -> query.setParameter("set_" + column, value));
+        where.forEach((column, value) -> query.setParameter("where_" + column, value));
+        List<?> rows = query.getResultList();
+        entityManager.detach(entityManager.getReference(entityType, id));
+        return rows.stream().findFirst().map(Object[].class::cast);
+    }
+
+    private static boolean supportsReturning(EntityManager entityManager) {
+        return entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName())
+                .startsWith("PostgreSQL");
+    }
+}
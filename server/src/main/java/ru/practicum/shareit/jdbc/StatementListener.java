@@ -0,0 +1,20 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Получает уведомления о выполнении SQL-запросов через {@link ObservedDataSource}.
+ */
+public interface StatementListener {
+
+    /**
+     * @return контекст, который будет передан в {@link #afterExecute}
+     */
+    @Nullable
+    Object beforeExecute(String sql);
+
+    void afterExecute(@Nullable Object context, String sql, List<Object> parameters, long elapsedNanos,
+                      @Nullable Throwable error);
+}
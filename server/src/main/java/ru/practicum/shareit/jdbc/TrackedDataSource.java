@@ -0,0 +1,73 @@
+package ru.practicum.shareit.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Сообщает {@link ConnectionTracker} о получении и возврате каждого соединения.
+ */
+public class TrackedDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final ConnectionTracker tracker;
+
+    public TrackedDataSource(DataSource targetDataSource, ConnectionTracker tracker) {
+        super(targetDataSource);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long startNanos = System.nanoTime();
+        try {
+            return tracked(super.getConnection(), startNanos);
+        } catch (SQLException | RuntimeException e) {
+            tracker.acquireFailed(System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long startNanos = System.nanoTime();
+        try {
+            return tracked(super.getConnection(username, password), startNanos);
+        } catch (SQLException | RuntimeException e) {
+            tracker.acquireFailed(System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+
+    private Connection tracked(Connection connection, long startNanos) {
+        ConnectionTracker.Lease lease = tracker.acquired(System.nanoTime() - startNanos);
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(TrackedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        tracker.released(lease);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Публикуется при записи в outbox, чтобы ретранслятор начал отправку сразу после фиксации транзакции.
+ */
+public class OutboxAppendedEvent {
+}
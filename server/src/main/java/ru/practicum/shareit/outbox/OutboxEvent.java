@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "created", nullable = false)
+    @CreationTimestamp
+    private LocalDateTime created;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Получатель событий outbox одного типа. Вызывается ретранслятором после того, как событие
+ * отмечено опубликованным, поэтому ошибка обработчика не приводит к повторной отправке.
+ */
+public interface OutboxEventHandler {
+    String getType();
+
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Блокировка строк не даёт двум экземплярам сервера отправить одно событие дважды:
+     * второй дождётся фиксации первого и не увидит уже опубликованные строки.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnpublished(Pageable pageable);
+
+    @Query("SELECT e FROM OutboxEvent e " +
+            "WHERE e.type = :type AND e.recipientId = :recipientId AND e.id > :afterId AND e.publishedAt IS NOT NULL " +
+            "ORDER BY e.id")
+    List<OutboxEvent> findPublishedAfter(String type, Long recipientId, Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
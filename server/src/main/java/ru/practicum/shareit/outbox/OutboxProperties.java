@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+    /**
+     * Как часто ретранслятор проверяет таблицу, если после фиксации его не разбудили.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private int batchSize = 100;
+    /**
+     * Сколько опубликованные события хранятся для досылки при переподключении.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
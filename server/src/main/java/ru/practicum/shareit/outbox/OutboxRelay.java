@@ -0,0 +1,129 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит зафиксированные события outbox к обработчикам. Просыпается после каждой транзакции,
+ * записавшей событие, а раз в poll-interval проверяет таблицу сам, подбирая события,
+ * записанные другими экземплярами или оставшиеся после перезапуска.
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartInitializingSingleton, AutoCloseable {
+    private final OutboxService outboxService;
+    private final OutboxProperties properties;
+    private final Map<String, List<OutboxEventHandler>> handlers;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private volatile Thread worker;
+    private long nextCleanupNanos;
+
+    public OutboxRelay(OutboxService outboxService, OutboxProperties properties, List<OutboxEventHandler> handlers,
+                       MeterRegistry meterRegistry) {
+        this.outboxService = outboxService;
+        this.properties = properties;
+        this.handlers = handlers.stream().collect(Collectors.groupingBy(OutboxEventHandler::getType));
+        this.meterRegistry = meterRegistry;
+        this.nextCleanupNanos = System.nanoTime();
+    }
+
+    @TransactionalEventListener
+    public void onAppended(OutboxAppendedEvent event) {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * @return сколько событий отправлено
+     */
+    int relayPending() {
+        int relayed = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxService.claimUnpublished(properties.getBatchSize());
+            batch.forEach(this::dispatch);
+            relayed += batch.size();
+        } while (batch.size() == properties.getBatchSize());
+        return relayed;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Thread thread = new Thread(this::run, "outbox-relay");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        long pollMillis = properties.getPollInterval().toMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                relayPending();
+                cleanupIfDue();
+                wakeUps.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Ошибка отправки событий outbox: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void dispatch(OutboxEvent event) {
+        Duration lag = Duration.between(event.getCreated(), event.getPublishedAt());
+        Timer.builder("shareit.outbox.lag")
+                .description("Время от записи события в outbox до его отправки")
+                .tag("type", event.getType())
+                .register(meterRegistry)
+                .record(lag.isNegative() ? Duration.ZERO : lag);
+        for (OutboxEventHandler handler : handlers.getOrDefault(event.getType(), List.of())) {
+            try {
+                handler.handle(event);
+            } catch (RuntimeException e) {
+                log.warn("Обработчик {} не принял событие outbox id {}: {}", handler.getClass().getSimpleName(),
+                        event.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void cleanupIfDue() {
+        long now = System.nanoTime();
+        if (now - nextCleanupNanos < 0) {
+            return;
+        }
+        nextCleanupNanos = now + TimeUnit.HOURS.toNanos(1);
+        int deleted = outboxService.deletePublishedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.info("Удалено {} устаревших событий outbox", deleted);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Транзакционный outbox: событие пишется в ту же транзакцию, что и изменение, о котором оно сообщает,
+ * и уходит получателям только после её фиксации.
+ */
+@Service
+@RequiredArgsConstructor
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxService {
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent append(String type, Long recipientId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + type, e);
+        }
+        OutboxEvent event = outboxRepository.save(OutboxEvent.builder()
+                .type(type)
+                .recipientId(recipientId)
+                .payload(json)
+                .build());
+        eventPublisher.publishEvent(new OutboxAppendedEvent());
+        return event;
+    }
+
+    /**
+     * Отмечает опубликованными самые старые неотправленные события и возвращает их для отправки.
+     */
+    @Transactional
+    public List<OutboxEvent> claimUnpublished(int limit) {
+        List<OutboxEvent> events = outboxRepository.findUnpublished(PageRequest.of(0, limit));
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> event.setPublishedAt(now));
+        return events;
+    }
+
+    /**
+     * @param afterId id последнего полученного события или null, если досылать нечего
+     */
+    @Transactional(readOnly = true)
+    public List<OutboxEvent> getPublishedAfter(String type, Long recipientId, @Nullable Long afterId, int limit) {
+        if (afterId == null) {
+            return Collections.emptyList();
+        }
+        return outboxRepository.findPublishedAfter(type, recipientId, afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public int deletePublishedBefore(LocalDateTime before) {
+        return outboxRepository.deletePublishedBefore(before);
+    }
+}
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.request.dto.ItemNewRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.feed.ItemResponseFeed;
+import ru.practicum.shareit.request.feed.RequestFeed;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @RestController
@@ -13,6 +22,8 @@ import java.util.Collection;
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
     private final ItemRequestService requestService;
+    private final RequestFeed requestFeed;
+    private final ItemResponseFeed itemResponseFeed;
 
     @PostMapping
     public ItemRequestDto createNewRequest(@RequestHeader("X-Sharer-User-Id") final Long userId,
@@ -28,10 +39,39 @@ public class ItemRequestController {
     @GetMapping("/all")
     public Collection<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                                      @RequestParam(value = "from", defaultValue = "0") final Integer from,
-                                                     @RequestParam(value = "size", defaultValue = "10") final Integer size) {
+                                                     @RequestParam(value = "size", defaultValue = "10") final Integer size,
+                                                     @RequestParam(value = "afterCreated", required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     final LocalDateTime afterCreated,
+                                                     @RequestParam(value = "afterId", required = false) final Long afterId) {
+        if (afterCreated != null && afterId != null) {
+            return requestService.getAllRequestsForAllUsers(userId, afterCreated, afterId, size);
+        }
         return requestService.getAllRequestsForAllUsers(userId, from, size);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRequests(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                                     @RequestHeader(value = "Last-Event-ID", required = false)
+                                                     final Long lastEventId) {
+        try {
+            return ResponseEntity.ok(requestFeed.subscribe(userId, lastEventId));
+        } catch (ObjectNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(RequestFeed.failed(e.getMessage()));
+        }
+    }
+
+    @GetMapping(path = "/responses/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamResponses(@RequestHeader("X-Sharer-User-Id") final Long userId,
+                                                      @RequestHeader(value = "Last-Event-ID", required = false)
+                                                      final Long lastEventId) {
+        try {
+            return ResponseEntity.ok(itemResponseFeed.subscribe(userId, lastEventId));
+        } catch (ObjectNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(RequestFeed.failed(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") final Long userId,
                                          @PathVariable final Long requestId) {
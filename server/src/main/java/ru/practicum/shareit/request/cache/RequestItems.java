@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Вещи, созданные в ответ на запрос, и доступные вещи, подобранные к нему, в порядке убывания оценки.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RequestItems {
+    private final Set<Item> items;
+    private final List<Item> suggestions;
+}
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemDeletedEvent;
+import ru.practicum.shareit.request.matching.SuggestionsAddedEvent;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш вещей, созданных в ответ на запросы, и вещей, подобранных к запросам. Хранит копии вещей
+ * без владельца: этого достаточно для показа запроса, а копия не зависит от сессии, в которой была загружена.
+ * Изменения вещей и подборок этого экземпляра сервера попадают в кэш после фиксации транзакции,
+ * изменения через другие экземпляры становятся видны по истечении ttl.
+ */
+@Component
+@EnableConfigurationProperties(RequestItemsCacheProperties.class)
+public class RequestItemsCache {
+    private final int maxRequests;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Long, CachedRequest> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Запросы в кэше, к которым подобрана вещь, по id вещи.
+     */
+    private final Map<Long, Set<Long>> suggestedIn = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private long version;
+
+    @Autowired
+    public RequestItemsCache(RequestItemsCacheProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RequestItemsCache(RequestItemsCacheProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.maxRequests = properties.getMaxRequests();
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.clock = clock;
+        this.hits = meterRegistry.counter("shareit.request.items.cache", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.request.items.cache", "result", "miss");
+        Gauge.builder("shareit.request.items.cache.size", this, RequestItemsCache::size)
+                .description("Число запросов, вещи которых лежат в кэше")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает вещи и подборку для каждого из запросов. Отсутствующие в кэше запросы загружаются
+     * одним вызовом каждого загрузчика. Загруженное не попадает в кэш, если за время загрузки изменилась
+     * какая-либо вещь или подборка: событие об изменении могло прийти раньше, чем загрузка положила бы
+     * устаревшие данные.
+     *
+     * @param itemLoader       вещи по списку id запросов
+     * @param suggestionLoader подобранные вещи по списку id запросов в порядке убывания оценки,
+     *                         включая недоступные
+     */
+    public Map<Long, RequestItems> get(List<Long> requestIds, Function<List<Long>, List<Item>> itemLoader,
+                                       Function<List<Long>, List<RequestSuggestion>> suggestionLoader) {
+        Map<Long, RequestItems> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long versionBefore;
+        synchronized (entries) {
+            long now = clock.getAsLong();
+            for (Long requestId : requestIds) {
+                CachedRequest entry = entries.get(requestId);
+                if (entry != null && entry.expiresAt - now > 0) {
+                    result.put(requestId, entry.view());
+                } else {
+                    missing.add(requestId);
+                }
+            }
+            versionBefore = version;
+        }
+        hits.increment(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+        Map<Long, CachedRequest> loaded = new HashMap<>();
+        missing.forEach(requestId -> loaded.put(requestId, new CachedRequest()));
+        for (Item item : itemLoader.apply(missing)) {
+            loaded.get(item.getRequestId()).items.put(item.getId(), snapshot(item));
+        }
+        for (RequestSuggestion suggestion : suggestionLoader.apply(missing)) {
+            loaded.get(suggestion.getRequestId()).suggestions.add(snapshot(suggestion.getItem()));
+        }
+        synchronized (entries) {
+            boolean store = version == versionBefore;
+            long expiresAt = clock.getAsLong() + ttlNanos;
+            loaded.forEach((requestId, entry) -> {
+                result.put(requestId, entry.view());
+                if (store) {
+                    entry.expiresAt = expiresAt;
+                    put(requestId, entry);
+                }
+            });
+            evictOverflow();
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        Item item = Item.builder()
+                .id(event.getItemId())
+                .name(event.getName())
+                .description(event.getDescription())
+                .available(event.isAvailable())
+                .requestId(event.getRequestId())
+                .build();
+        synchronized (entries) {
+            version++;
+            CachedRequest entry = event.getRequestId() == null ? null : entries.get(event.getRequestId());
+            if (entry != null) {
+                entry.items.put(item.getId(), item);
+            }
+            for (Long requestId : suggestedIn.getOrDefault(item.getId(), Set.of())) {
+                entries.get(requestId).suggestions.replaceAll(suggested ->
+                        suggested.getId().equals(item.getId()) ? item : suggested);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        synchronized (entries) {
+            version++;
+            CachedRequest entry = event.getRequestId() == null ? null : entries.get(event.getRequestId());
+            if (entry != null) {
+                entry.items.remove(event.getItemId());
+            }
+            Set<Long> requestIds = suggestedIn.remove(event.getItemId());
+            if (requestIds != null) {
+                for (Long requestId : requestIds) {
+                    entries.get(requestId).suggestions.removeIf(suggested ->
+                            suggested.getId().equals(event.getItemId()));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onSuggestionsAdded(SuggestionsAddedEvent event) {
+        synchronized (entries) {
+            version++;
+            CachedRequest entry = entries.remove(event.getRequestId());
+            if (entry != null) {
+                unindex(event.getRequestId(), entry);
+            }
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void put(Long requestId, CachedRequest entry) {
+        CachedRequest previous = entries.put(requestId, entry);
+        if (previous != null) {
+            unindex(requestId, previous);
+        }
+        for (Item item : entry.suggestions) {
+            suggestedIn.computeIfAbsent(item.getId(), id -> new HashSet<>()).add(requestId);
+        }
+    }
+
+    private void unindex(Long requestId, CachedRequest entry) {
+        for (Item item : entry.suggestions) {
+            Set<Long> requestIds = suggestedIn.get(item.getId());
+            if (requestIds != null) {
+                requestIds.remove(requestId);
+                if (requestIds.isEmpty()) {
+                    suggestedIn.remove(item.getId());
+                }
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, CachedRequest>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxRequests && iterator.hasNext()) {
+            Map.Entry<Long, CachedRequest> eldest = iterator.next();
+            iterator.remove();
+            unindex(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static Item snapshot(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    private static class CachedRequest {
+        private final Map<Long, Item> items = new LinkedHashMap<>();
+        private final List<Item> suggestions = new ArrayList<>();
+        private long expiresAt;
+
+        RequestItems view() {
+            return new RequestItems(Set.copyOf(items.values()), suggestions.stream()
+                    .filter(Item::getAvailable)
+                    .collect(Collectors.toUnmodifiableList()));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.request-items-cache")
+public class RequestItemsCacheProperties {
+    private int maxRequests = 10000;
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -15,4 +16,8 @@ public class ItemRequestDto {
     private Long requestorId;
     private LocalDateTime created;
     private Set<ItemDto> items;
+    /**
+     * Подобранные по описанию вещи из каталога, лучшие первыми.
+     */
+    private List<ItemDto> suggestions;
 }
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.request.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Очередь одного подписчика ленты. Публикующий поток только кладёт событие в ограниченный буфер,
+ * отправку выполняет пул ленты, поэтому медленный клиент не задерживает ни публикацию, ни других подписчиков.
+ */
+class FeedSubscriber<T> {
+    private final long userId;
+    private final SseEmitter emitter;
+    private final int bufferSize;
+    private final Executor executor;
+    private final Consumer<FeedSubscriber<T>> onClose;
+    private final Function<T, Long> idOf;
+    private final Function<T, SseEmitter.SseEventBuilder> toEvent;
+    private final Deque<T> buffer = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean started;
+    private int dropped;
+    private boolean heartbeatPending;
+
+    /**
+     * @param idOf    id события, по которому повтор из базы совмещается с уже пришедшими событиями
+     * @param toEvent SSE-событие для отправки клиенту
+     */
+    FeedSubscriber(long userId, SseEmitter emitter, int bufferSize, Executor executor,
+                   Consumer<FeedSubscriber<T>> onClose, Function<T, Long> idOf,
+                   Function<T, SseEmitter.SseEventBuilder> toEvent) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+        this.onClose = onClose;
+        this.idOf = idOf;
+        this.toEvent = toEvent;
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * @return true, если ради нового события пришлось выбросить самое старое
+     */
+    boolean offer(T event) {
+        boolean overflow;
+        synchronized (buffer) {
+            overflow = buffer.size() >= bufferSize;
+            if (overflow) {
+                buffer.pollFirst();
+                dropped++;
+            }
+            buffer.addLast(event);
+        }
+        scheduleDrain();
+        return overflow;
+    }
+
+    /**
+     * Ставит пропущенные события перед теми, что пришли, пока они читались из базы, и начинает отправку.
+     */
+    void start(List<T> replay) {
+        synchronized (buffer) {
+            Set<Long> live = buffer.stream().map(idOf).collect(Collectors.toSet());
+            List<T> missed = replay.stream()
+                    .filter(event -> !live.contains(idOf.apply(event)))
+                    .collect(Collectors.toList());
+            for (int i = missed.size() - 1; i >= 0; i--) {
+                buffer.addFirst(missed.get(i));
+            }
+            while (buffer.size() > bufferSize) {
+                buffer.pollFirst();
+                dropped++;
+            }
+        }
+        started = true;
+        scheduleDrain();
+    }
+
+    void heartbeat() {
+        synchronized (buffer) {
+            heartbeatPending = true;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Вызывается и из колбэков emitter в потоке контейнера. Ожидает окончания текущей отправки:
+     * после возврата из колбэка ошибки контейнер освобождает ответ, и запись в него из пула ленты
+     * попала бы в ответ другого соединения.
+     */
+    void close() {
+        synchronized (emitter) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        onClose.accept(this);
+    }
+
+    int buffered() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (started && !closed.get() && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get()) {
+                T event;
+                int droppedBefore;
+                boolean sendHeartbeat;
+                synchronized (buffer) {
+                    event = buffer.pollFirst();
+                    droppedBefore = dropped;
+                    dropped = 0;
+                    sendHeartbeat = heartbeatPending && event == null;
+                    heartbeatPending = false;
+                }
+                if (!send(droppedBefore, event, sendHeartbeat) || event == null) {
+                    break;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            close();
+            return;
+        } finally {
+            draining.set(false);
+        }
+        synchronized (buffer) {
+            if (buffer.isEmpty() && !heartbeatPending) {
+                return;
+            }
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * @return false, если подписчик уже закрыт
+     */
+    private boolean send(int droppedBefore, T event, boolean sendHeartbeat) throws IOException {
+        synchronized (emitter) {
+            if (closed.get()) {
+                return false;
+            }
+            if (droppedBefore > 0) {
+                emitter.send(SseEmitter.event().name("dropped").data(droppedBefore));
+            }
+            if (event != null) {
+                emitter.send(toEvent.apply(event));
+            } else if (sendHeartbeat) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.feed;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+/**
+ * Публикуется при создании запроса; подписчики ленты получают его после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemRequestCreatedEvent {
+    private final ItemRequestDto request;
+}
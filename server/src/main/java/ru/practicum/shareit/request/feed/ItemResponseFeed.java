@@ -0,0 +1,80 @@
+package ru.practicum.shareit.request.feed;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Уведомляет автора запроса по Server-Sent Events о вещах, добавленных в ответ на его запросы.
+ * События приходят из outbox, поэтому уходят только после фиксации вещи. Идентификатор события
+ * совпадает с id записи outbox: при переподключении с Last-Event-ID пропущенные вещи досылаются из базы.
+ * Ретрансляторы экземпляров сервера разбирают события outbox между собой, и каждый отправляет их только
+ * своим подписчикам. Событие почти всегда забирает экземпляр, на котором создана вещь, поэтому автор
+ * запроса, подключённый к другому экземпляру, получает её не сразу, а при переподключении.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RequestFeedProperties.class)
+public class ItemResponseFeed implements OutboxEventHandler {
+    public static final String EVENT_TYPE = "item-added";
+
+    private final RequestFeedProperties properties;
+    private final OutboxService outboxService;
+    private final UserRepository userRepository;
+    private final SseFeed<OutboxEvent> feed;
+
+    public ItemResponseFeed(RequestFeedProperties properties, OutboxService outboxService,
+                            UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.outboxService = outboxService;
+        this.userRepository = userRepository;
+        this.feed = new SseFeed<>("item-response", properties, OutboxEvent::getId, event -> SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name("item")
+                .data(event.getPayload(), MediaType.APPLICATION_JSON), meterRegistry);
+    }
+
+    /**
+     * @param lastEventId id последнего полученного клиентом события или null для новой подписки
+     */
+    public SseEmitter subscribe(Long userId, @Nullable Long lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ObjectNotFoundException(String.format("Пользователь id %s не найден", userId));
+        }
+        SseEmitter emitter = feed.subscribe(userId, () ->
+                outboxService.getPublishedAfter(EVENT_TYPE, userId, lastEventId, properties.getReplayLimit()));
+        log.info("Пользователь id {} подписался на ответы на свои запросы, последнее событие {}", userId,
+                lastEventId);
+        return emitter;
+    }
+
+    @Override
+    public String getType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        feed.publish(event, userId -> userId == event.getRecipientId());
+    }
+
+    int getSubscriberCount() {
+        return feed.getSubscriberCount();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        feed.shutdown();
+    }
+}
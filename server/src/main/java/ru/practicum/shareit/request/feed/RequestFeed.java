@@ -0,0 +1,76 @@
+package ru.practicum.shareit.request.feed;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Лента новых запросов вещей по Server-Sent Events. Каждый запрос уходит всем подписчикам, кроме автора,
+ * после фиксации транзакции, в которой он создан. Идентификатор события совпадает с id запроса, поэтому
+ * переподключившийся клиент с Last-Event-ID получает пропущенные запросы из базы.
+ * Лента живёт в памяти одного экземпляра сервера: подписчик видит запросы, созданные через этот экземпляр,
+ * а остальные получает при переподключении.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RequestFeedProperties.class)
+public class RequestFeed {
+    private final RequestFeedProperties properties;
+    private final ItemRequestService requestService;
+    private final SseFeed<ItemRequestDto> feed;
+
+    public RequestFeed(RequestFeedProperties properties, ItemRequestService requestService,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.requestService = requestService;
+        this.feed = new SseFeed<>("request", properties, ItemRequestDto::getId, request -> SseEmitter.event()
+                .id(String.valueOf(request.getId()))
+                .name("request")
+                .data(request, MediaType.APPLICATION_JSON), meterRegistry);
+    }
+
+    /**
+     * @param lastEventId id последнего полученного клиентом запроса или null для новой подписки
+     */
+    public SseEmitter subscribe(Long userId, @Nullable Long lastEventId) {
+        SseEmitter emitter = feed.subscribe(userId, () ->
+                requestService.getRequestsCreatedAfter(userId, lastEventId, properties.getReplayLimit()));
+        log.info("Пользователь id {} подписался на ленту запросов, последнее событие {}", userId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Поток из одного события error: клиент ленты принимает только text/event-stream,
+     * поэтому ошибка подписки не может быть отдана обычным JSON-ответом.
+     */
+    public static SseEmitter failed(String message) {
+        SseEmitter emitter = new SseEmitter();
+        SseFeed.send(emitter, SseEmitter.event().name("error").data(message));
+        emitter.complete();
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        ItemRequestDto request = event.getRequest();
+        feed.publish(request, userId -> userId != request.getRequestorId());
+    }
+
+    int getSubscriberCount() {
+        return feed.getSubscriberCount();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        feed.shutdown();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request.feed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.request-feed")
+public class RequestFeedProperties {
+    /**
+     * Сколько неотправленных событий держится для одного подписчика; при переполнении теряются самые старые.
+     */
+    private int bufferSize = 64;
+    /**
+     * Сколько пропущенных запросов досылается при переподключении с Last-Event-ID.
+     */
+    private int replayLimit = 64;
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration timeout = Duration.ofMinutes(30);
+    private int threads = 4;
+}
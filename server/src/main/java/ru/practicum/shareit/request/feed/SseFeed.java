@@ -0,0 +1,111 @@
+package ru.practicum.shareit.request.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Подписчики одной SSE-ленты с общим пулом отправки и heartbeat.
+ */
+class SseFeed<T> {
+    private final RequestFeedProperties properties;
+    private final Function<T, Long> idOf;
+    private final Function<T, SseEmitter.SseEventBuilder> toEvent;
+    private final Set<FeedSubscriber<T>> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter published;
+    private final Counter dropped;
+
+    SseFeed(String name, RequestFeedProperties properties, Function<T, Long> idOf,
+            Function<T, SseEmitter.SseEventBuilder> toEvent, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.idOf = idOf;
+        this.toEvent = toEvent;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(FeedSubscriber::heartbeat),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        this.published = meterRegistry.counter("shareit.request.feed.events", "feed", name, "result", "published");
+        this.dropped = meterRegistry.counter("shareit.request.feed.events", "feed", name, "result", "dropped");
+        Gauge.builder("shareit.request.feed.subscribers", subscribers, Set::size)
+                .tag("feed", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Подписчик начинает получать события до чтения пропущенных, поэтому событие,
+     * опубликованное во время чтения, не теряется и не приходит дважды.
+     */
+    SseEmitter subscribe(long userId, Supplier<List<T>> replay) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        send(emitter, SseEmitter.event().comment("connected"));
+        FeedSubscriber<T> subscriber = new FeedSubscriber<>(userId, emitter, properties.getBufferSize(), sender,
+                subscribers::remove, idOf, toEvent);
+        subscribers.add(subscriber);
+        try {
+            subscriber.start(replay.get());
+        } catch (RuntimeException e) {
+            subscriber.close();
+            throw e;
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    void publish(T event, LongPredicate recipient) {
+        for (FeedSubscriber<T> subscriber : subscribers) {
+            if (recipient.test(subscriber.getUserId())) {
+                published.increment();
+                if (subscriber.offer(event)) {
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        sender.shutdownNow();
+    }
+}
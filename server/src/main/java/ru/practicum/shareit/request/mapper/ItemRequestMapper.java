@@ -22,6 +22,9 @@ public class ItemRequestMapper {
                 .requestorId(request.getRequestor().getId())
                 .created(request.getCreated())
                 .items(request.getItems() != null ? ItemMapper.toItemDtos(request.getItems()) : null)
+                .suggestions(request.getSuggestions() != null ? request.getSuggestions().stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()) : null)
                 .build();
     }
 
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.search.Bm25Index;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.feed.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Подбирает к новому запросу вещи из каталога по индексу поиска. Подбор идёт в своём пуле
+ * после фиксации запроса, поэтому создание запроса не ждёт ни поиска, ни записи предложений.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.request-matching.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RequestMatchingProperties.class)
+public class RequestMatcher {
+    private final RequestMatchingProperties properties;
+    private final ItemSearchIndex searchIndex;
+    private final ItemRequestService requestService;
+    private final ThreadPoolExecutor executor;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public RequestMatcher(RequestMatchingProperties properties, ItemSearchIndex searchIndex,
+                          ItemRequestService requestService, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.searchIndex = searchIndex;
+        this.requestService = requestService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "request-matcher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.matchTimer = Timer.builder("shareit.request.matching")
+                .description("Время подбора вещей к запросу, включая запись предложений")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("shareit.request.matching.rejected");
+    }
+
+    @TransactionalEventListener
+    public void onRequestCreated(ItemRequestCreatedEvent event) {
+        ItemRequestDto request = event.getRequest();
+        try {
+            executor.execute(() -> matchTimer.record(() -> match(request)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Очередь подбора переполнена, запрос id {} останется без предложений", request.getId());
+        }
+    }
+
+    void match(ItemRequestDto request) {
+        try {
+            List<Bm25Index.Match> matches = searchIndex.search(request.getDescription(), properties.getSuggestions(),
+                    request.getRequestorId());
+            if (!matches.isEmpty()) {
+                requestService.addSuggestions(request.getId(), matches);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось подобрать вещи к запросу id {}: {}", request.getId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
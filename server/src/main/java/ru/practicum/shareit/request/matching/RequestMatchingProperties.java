@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.request-matching")
+public class RequestMatchingProperties {
+    private boolean enabled = true;
+    /**
+     * Сколько лучших вещей предлагается к запросу.
+     */
+    private int suggestions = 3;
+    private int threads = 2;
+    /**
+     * Сколько запросов может ждать подбора; при переполнении запрос остаётся без предложений.
+     */
+    private int queueCapacity = 1000;
+}
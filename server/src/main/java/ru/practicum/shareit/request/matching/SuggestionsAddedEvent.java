@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Публикуется, когда к запросу подобраны вещи; кэш вещей по запросам забывает запрос после фиксации транзакции.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SuggestionsAddedEvent {
+    private final long requestId;
+}
@@ -10,6 +10,7 @@ import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -36,4 +37,7 @@ public class ItemRequest {
 
     @Transient
     private Set<Item> items;
+
+    @Transient
+    private List<Item> suggestions;
 }
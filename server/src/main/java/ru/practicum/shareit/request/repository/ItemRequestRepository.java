@@ -1,11 +1,30 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorOrderByCreated(User user);
+
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requestor " +
+            "WHERE r.requestor.id <> :userId " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOtherUsersRequests(Long userId, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requestor " +
+            "WHERE r.requestor.id <> :userId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :id)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOtherUsersRequestsBefore(Long userId, LocalDateTime created, Long id, Pageable pageable);
+
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requestor " +
+            "WHERE r.requestor.id <> :userId AND r.id > :id " +
+            "ORDER BY r.id")
+    List<ItemRequest> findOtherUsersRequestsAfterId(Long userId, Long id, Pageable pageable);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RequestSuggestionRepository extends JpaRepository<RequestSuggestion, Long> {
+
+    /**
+     * Подборки запросов вместе с вещами, включая недоступные: кэш запросов скрывает их сам,
+     * чтобы не перечитывать подборку, когда вещь снова становится доступной.
+     */
+    @Query("SELECT s FROM RequestSuggestion s JOIN FETCH s.item i " +
+            "WHERE s.requestId IN :requestIds " +
+            "ORDER BY s.score DESC, i.id")
+    List<RequestSuggestion> findAllByRequestIdIn(Collection<Long> requestIds);
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.item.search.Bm25Index;
 import ru.practicum.shareit.request.dto.ItemNewRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemRequestService {
 
@@ -14,4 +18,22 @@ public interface ItemRequestService {
     ItemRequestDto getRequestById(Long userId, Long requestId);
 
     Collection<ItemRequestDto> getAllRequestsForAllUsers(Long userId, Integer from, Integer size);
+
+    /**
+     * Следующая страница ленты после запроса с указанными датой создания и id, как правило последнего
+     * на предыдущей странице.
+     */
+    Collection<ItemRequestDto> getAllRequestsForAllUsers(Long userId, LocalDateTime afterCreated, Long afterId,
+                                                         Integer size);
+
+    /**
+     * Запросы других пользователей, созданные после запроса afterId, в порядке создания.
+     * Без afterId только проверяет пользователя и возвращает пустой список.
+     */
+    List<ItemRequestDto> getRequestsCreatedAfter(Long userId, @Nullable Long afterId, Integer limit);
+
+    /**
+     * Сохраняет вещи, подобранные к запросу; они отдаются вместе с запросом, пока доступны.
+     */
+    void addSuggestions(Long requestId, List<Bm25Index.Match> matches);
 }
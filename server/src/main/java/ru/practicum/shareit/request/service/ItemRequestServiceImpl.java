@@ -1,19 +1,26 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.Bm25Index;
+import ru.practicum.shareit.request.cache.RequestItems;
+import ru.practicum.shareit.request.cache.RequestItemsCache;
 import ru.practicum.shareit.request.dto.ItemNewRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.feed.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.matching.SuggestionsAddedEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -21,10 +28,8 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toSet;
-
 @Service
+@Timed("shareit.service")
 @Slf4j
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
@@ -32,6 +37,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository requestRepository;
+    private final RequestSuggestionRepository suggestionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestItemsCache itemsCache;
 
     @Override
     @Transactional
@@ -43,7 +51,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         requestRepository.save(request);
         request.setCreated(LocalDateTime.now());
         log.info("Пользователь id {} добавил запрос id {}", requestor.getId(), request.getId());
-        return ItemRequestMapper.toItemRequestDto(request);
+        ItemRequestDto requestDto = ItemRequestMapper.toItemRequestDto(request);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(requestDto));
+        return requestDto;
     }
 
     @Override
@@ -69,24 +79,71 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public Collection<ItemRequestDto> getAllRequestsForAllUsers(Long userId, Integer from, Integer size) {
-        User requestor = userRepository.findById(userId).orElseThrow(() ->
+        userRepository.findById(userId).orElseThrow(() ->
                 new ObjectNotFoundException(String.format("Пользователь id %s не найден", userId)));
-        PageRequest page = PageRequest.of(from / size, size, Sort.by("created").descending());
-        List<ItemRequest> requests = requestRepository.findAll(page).stream()
-                .filter(request -> !request.getRequestor().equals(requestor))
-                .collect(Collectors.toList());
+        List<ItemRequest> requests = requestRepository.findOtherUsersRequests(userId,
+                PageRequest.of(from / size, size));
         fillItemsByRequests(requests);
         log.info("Список всех запросов получен пользователем id {}", userId);
         return ItemRequestMapper.toItemRequestDtoListWithItems(requests);
     }
 
+    @Override
+    public Collection<ItemRequestDto> getAllRequestsForAllUsers(Long userId, LocalDateTime afterCreated, Long afterId,
+                                                                Integer size) {
+        userRepository.findById(userId).orElseThrow(() ->
+                new ObjectNotFoundException(String.format("Пользователь id %s не найден", userId)));
+        List<ItemRequest> requests = requestRepository.findOtherUsersRequestsBefore(userId, afterCreated, afterId,
+                PageRequest.ofSize(size));
+        fillItemsByRequests(requests);
+        log.info("Список всех запросов после запроса id {} получен пользователем id {}", afterId, userId);
+        return ItemRequestMapper.toItemRequestDtoListWithItems(requests);
+    }
+
+    @Override
+    public List<ItemRequestDto> getRequestsCreatedAfter(Long userId, Long afterId, Integer limit) {
+        userRepository.findById(userId).orElseThrow(() ->
+                new ObjectNotFoundException(String.format("Пользователь id %s не найден", userId)));
+        if (afterId == null) {
+            return List.of();
+        }
+        List<ItemRequest> requests = requestRepository.findOtherUsersRequestsAfterId(userId, afterId,
+                PageRequest.ofSize(limit));
+        fillItemsByRequests(requests);
+        return requests.stream().map(ItemRequestMapper::toItemRequestDto).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void addSuggestions(Long requestId, List<Bm25Index.Match> matches) {
+        List<RequestSuggestion> suggestions = matches.stream()
+                .map(match -> RequestSuggestion.builder()
+                        .requestId(requestId)
+                        .item(itemRepository.getReferenceById(match.getItemId()))
+                        .score(match.getScore())
+                        .build())
+                .collect(Collectors.toList());
+        suggestionRepository.saveAll(suggestions);
+        eventPublisher.publishEvent(new SuggestionsAddedEvent(requestId));
+        log.info("К запросу id {} подобрано вещей: {}", requestId, suggestions.size());
+    }
+
     private void fillItemsByRequests(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
         List<Long> requestIds = requests.stream()
                 .map(ItemRequest::getId)
                 .collect(Collectors.toList());
-        Map<Long, Set<Item>> items = itemRepository.findAllByRequestIdIn(requestIds).stream()
-                .collect(groupingBy(Item::getRequestId, toSet()));
+        Map<Long, RequestItems> items = itemsCache.get(requestIds, itemRepository::findAllByRequestIdIn,
+                suggestionRepository::findAllByRequestIdIn);
 
-        requests.forEach(itemRequest -> itemRequest.setItems(items.getOrDefault(itemRequest.getId(), Collections.emptySet())));
+        requests.forEach(itemRequest -> {
+            RequestItems requestItems = items.get(itemRequest.getId());
+            itemRequest.setItems(requestItems.getItems());
+            itemRequest.setSuggestions(requestItems.getSuggestions().stream()
+                    .filter(item -> !itemRequest.getId().equals(item.getRequestId()))
+                    .collect(Collectors.toList()));
+        });
     }
 }
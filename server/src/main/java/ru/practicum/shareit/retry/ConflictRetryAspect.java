@@ -0,0 +1,63 @@
+package ru.practicum.shareit.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выполняет {@link RetryOnConflict} снаружи транзакции, чтобы каждая попытка заново читала данные.
+ * Между попытками ждёт случайную долю backoff, растущего с номером попытки, чтобы столкнувшиеся
+ * запросы разошлись. Внутри уже открытой транзакции не повторяет: её откат решает внешний вызов.
+ */
+@Slf4j
+@Aspect
+public class ConflictRetryAspect implements Ordered {
+    private final ConflictRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryAspect(ConflictRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(ru.practicum.shareit.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    meterRegistry.counter("shareit.conflict.exhausted", "method", method).increment();
+                    log.warn("{}: конфликт версий не разрешился за {} попыток", method, attempt);
+                    throw new ConflictException("Данные изменены другим запросом, повторите попытку");
+                }
+                meterRegistry.counter("shareit.conflict.retries", "method", method).increment();
+                log.debug("{}: конфликт версий, попытка {}", method, attempt);
+                TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current()
+                        .nextLong(properties.getBackoff().toNanos() * attempt + 1));
+            }
+        }
+    }
+
+    /**
+     * Раньше транзакции, чтобы повтор начинал новую.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConflictRetryProperties.class)
+public class ConflictRetryConfig {
+
+    @Bean
+    public ConflictRetryAspect conflictRetryAspect(ConflictRetryProperties properties, MeterRegistry meterRegistry) {
+        return new ConflictRetryAspect(properties, meterRegistry);
+    }
+}
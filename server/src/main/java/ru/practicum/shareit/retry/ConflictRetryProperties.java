@@ -0,0 +1,15 @@
+package ru.practicum.shareit.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.conflict-retry")
+public class ConflictRetryProperties {
+    private int maxAttempts = 3;
+    private Duration backoff = Duration.ofMillis(10);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Повторяет метод сервиса целиком, в новой транзакции, если его запись отклонена проверкой версии.
+ * Когда попытки исчерпаны, клиент получает 409.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.statistics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.statistics.HibernateStatisticsSnapshot.CacheRatio;
+import ru.practicum.shareit.statistics.HibernateStatisticsSnapshot.EntityStats;
+import ru.practicum.shareit.statistics.HibernateStatisticsSnapshot.QueryStats;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Статистика Hibernate по запросам, сущностям и кешу второго уровня. Запросы отсортированы
+ * по суммарному времени выполнения, самые дорогие первыми.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public HibernateStatisticsSnapshot hibernate() {
+        return HibernateStatisticsSnapshot.builder()
+                .enabled(statistics.isStatisticsEnabled())
+                .queryExecutionCount(statistics.getQueryExecutionCount())
+                .queryExecutionMaxTimeMillis(statistics.getQueryExecutionMaxTime())
+                .queryExecutionMaxTimeQuery(statistics.getQueryExecutionMaxTimeQueryString())
+                .prepareStatementCount(statistics.getPrepareStatementCount())
+                .entityLoadCount(statistics.getEntityLoadCount())
+                .entityFetchCount(statistics.getEntityFetchCount())
+                .collectionLoadCount(statistics.getCollectionLoadCount())
+                .collectionFetchCount(statistics.getCollectionFetchCount())
+                .secondLevelCache(CacheRatio.of(statistics.getSecondLevelCacheHitCount(),
+                        statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()))
+                .queryCache(CacheRatio.of(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                        statistics.getQueryCachePutCount()))
+                .queries(queries())
+                .entities(entities())
+                .secondLevelCacheRegions(secondLevelCacheRegions())
+                .build();
+    }
+
+    /**
+     * Сбрасывает накопленную статистику, например перед нагрузочным прогоном.
+     */
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+    }
+
+    private List<QueryStats> queries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics stats = statistics.getQueryStatistics(query);
+                    return QueryStats.builder()
+                            .query(query)
+                            .executionCount(stats.getExecutionCount())
+                            .meanTimeMillis(stats.getExecutionAvgTime())
+                            .maxTimeMillis(stats.getExecutionMaxTime())
+                            .totalTimeMillis(stats.getExecutionTotalTime())
+                            .rowsFetched(stats.getExecutionRowCount())
+                            .cache(CacheRatio.of(stats.getCacheHitCount(), stats.getCacheMissCount(),
+                                    stats.getCachePutCount()))
+                            .build();
+                })
+                .sorted(Comparator.comparingLong(QueryStats::getTotalTimeMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, EntityStats> entities() {
+        Map<String, EntityStats> entities = new TreeMap<>();
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics stats = statistics.getEntityStatistics(entityName);
+            entities.put(entityName, EntityStats.builder()
+                    .loadCount(stats.getLoadCount())
+                    .fetchCount(stats.getFetchCount())
+                    .insertCount(stats.getInsertCount())
+                    .updateCount(stats.getUpdateCount())
+                    .deleteCount(stats.getDeleteCount())
+                    .optimisticFailureCount(stats.getOptimisticFailureCount())
+                    .build());
+        }
+        return entities;
+    }
+
+    private Map<String, CacheRatio> secondLevelCacheRegions() {
+        Map<String, CacheRatio> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(regionName);
+            if (stats != null) {
+                regions.put(regionName, CacheRatio.of(stats.getHitCount(), stats.getMissCount(), stats.getPutCount()));
+            }
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.statistics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class HibernateStatisticsSnapshot {
+    private boolean enabled;
+    private long queryExecutionCount;
+    private long queryExecutionMaxTimeMillis;
+    private String queryExecutionMaxTimeQuery;
+    private long prepareStatementCount;
+    private long entityLoadCount;
+    private long entityFetchCount;
+    private long collectionLoadCount;
+    private long collectionFetchCount;
+    private CacheRatio secondLevelCache;
+    private CacheRatio queryCache;
+    private List<QueryStats> queries;
+    private Map<String, EntityStats> entities;
+    private Map<String, CacheRatio> secondLevelCacheRegions;
+
+    @Data
+    @Builder
+    public static class QueryStats {
+        private String query;
+        private long executionCount;
+        private long meanTimeMillis;
+        private long maxTimeMillis;
+        private long totalTimeMillis;
+        private long rowsFetched;
+        private CacheRatio cache;
+    }
+
+    @Data
+    @Builder
+    public static class EntityStats {
+        private long loadCount;
+        private long fetchCount;
+        private long insertCount;
+        private long updateCount;
+        private long deleteCount;
+        private long optimisticFailureCount;
+    }
+
+    @Data
+    @Builder
+    public static class CacheRatio {
+        private long hitCount;
+        private long missCount;
+        private long putCount;
+        private double hitRatio;
+
+        static CacheRatio of(long hitCount, long missCount, long putCount) {
+            long lookups = hitCount + missCount;
+            return CacheRatio.builder()
+                    .hitCount(hitCount)
+                    .missCount(missCount)
+                    .putCount(putCount)
+                    .hitRatio(lookups == 0 ? 0 : (double) hitCount / lookups)
+                    .build();
+        }
+    }
+}
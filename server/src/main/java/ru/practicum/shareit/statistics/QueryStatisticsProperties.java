@@ -0,0 +1,15 @@
+package ru.practicum.shareit.statistics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.query-statistics")
+public class QueryStatisticsProperties {
+    private boolean slowQueryLogEnabled = true;
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+}
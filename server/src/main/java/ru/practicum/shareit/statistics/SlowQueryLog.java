@@ -0,0 +1,76 @@
+package ru.practicum.shareit.statistics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.jdbc.StatementListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Пишет в лог SQL-запросы медленнее порога. Значения параметров не логируются: вместо них выводятся
+ * отпечатки (тип и хеш значения), по которым можно сгруппировать повторяющиеся вызовы. Выключенный журнал
+ * не регистрируется вовсе, чтобы без других слушателей DataSource не оборачивался.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.query-statistics.slow-query-log-enabled", havingValue = "true",
+        matchIfMissing = true)
+@EnableConfigurationProperties(QueryStatisticsProperties.class)
+public class SlowQueryLog implements StatementListener {
+    private final long thresholdNanos;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Реестр метрик ленивый: он сам зависит от DataSource, который оборачивается этим слушателем.
+     */
+    public SlowQueryLog(QueryStatisticsProperties properties, @Lazy MeterRegistry meterRegistry) {
+        this.thresholdNanos = properties.getSlowQueryThreshold().toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object beforeExecute(String sql) {
+        return null;
+    }
+
+    @Override
+    public void afterExecute(Object context, String sql, List<Object> parameters, long elapsedNanos, Throwable error) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        meterRegistry.counter("shareit.db.slow.queries").increment();
+        String normalizedSql = normalize(sql);
+        List<String> parameterFingerprints = fingerprints(parameters);
+        log.warn("Медленный SQL-запрос {} мс (порог {} мс), отпечаток {}: {}, параметры {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+                fingerprint(normalizedSql, parameterFingerprints), normalizedSql, parameterFingerprints);
+    }
+
+    static String normalize(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Отпечаток вызова: одинаков для одного и того же запроса с теми же значениями параметров.
+     */
+    static String fingerprint(String normalizedSql, List<String> parameterFingerprints) {
+        return hex(Objects.hash(normalizedSql, parameterFingerprints));
+    }
+
+    static List<String> fingerprints(List<Object> parameters) {
+        return parameters.stream()
+                .map(value -> value == null ? "null" : value.getClass().getSimpleName() + "#" + hex(value.hashCode()))
+                .collect(Collectors.toList());
+    }
+
+    private static String hex(int hash) {
+        return String.format("%08x", hash);
+    }
+}
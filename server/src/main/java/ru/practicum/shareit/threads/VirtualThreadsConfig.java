@@ -0,0 +1,74 @@
+package ru.practicum.shareit.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.practicum.shareit.jdbc.ConcurrencyLimitingDataSource;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+@Slf4j
+public class VirtualThreadsConfig {
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    private ExecutorService tomcatExecutor;
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        if (!VirtualThreads.isSupported()) {
+            log.warn("Виртуальные потоки не поддерживаются JVM {}, Tomcat использует пул обычных потоков",
+                    Runtime.version());
+            return protocolHandler -> {
+            };
+        }
+        tomcatExecutor = VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-");
+        log.info("Запросы обрабатываются в виртуальных потоках");
+        return protocolHandler -> protocolHandler.setExecutor(tomcatExecutor);
+    }
+
+    /**
+     * С виртуальными потоками число одновременных запросов не ограничено пулом Tomcat,
+     * поэтому обращения к базе ограничиваются семафором по размеру пула Hikari.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+    public static JdbcConcurrencyLimiter jdbcConcurrencyLimiter() {
+        return new JdbcConcurrencyLimiter();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (tomcatExecutor != null) {
+            tomcatExecutor.shutdown();
+        }
+    }
+
+    static class JdbcConcurrencyLimiter implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource) {
+                HikariDataSource hikari = (HikariDataSource) bean;
+                int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                return new ConcurrencyLimitingDataSource(hikari, poolSize, hikari.getConnectionTimeout());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
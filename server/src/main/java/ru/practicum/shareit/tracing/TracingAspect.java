@@ -0,0 +1,31 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Открывает спан на каждый вызов метода сервиса.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object traceServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (Span.current() == null) {
+            return joinPoint.proceed();
+        }
+        String name = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        try (Span span = tracer.startSpan(name, SpanKind.INTERNAL)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                span.recordError(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.jdbc.StatementListener;
+
+import java.util.List;
+
+/**
+ * Открывает дочерний спан на каждый SQL-запрос, выполненный в рамках запроса.
+ */
+@RequiredArgsConstructor
+public class TracingStatementListener implements StatementListener {
+    private final Tracer tracer;
+
+    @Override
+    public Object beforeExecute(String sql) {
+        if (Span.current() == null) {
+            return null;
+        }
+        String trimmed = sql.trim();
+        int end = trimmed.indexOf(' ');
+        String operation = end < 0 ? trimmed : trimmed.substring(0, end);
+        return tracer.startSpan("SQL " + operation.toUpperCase(), SpanKind.CLIENT)
+                .setAttribute("db.statement", trimmed);
+    }
+
+    @Override
+    public void afterExecute(Object context, String sql, List<Object> parameters, long elapsedNanos, Throwable error) {
+        if (context == null) {
+            return;
+        }
+        Span span = (Span) context;
+        if (error != null) {
+            span.recordError(error);
+        }
+        span.close();
+    }
+}
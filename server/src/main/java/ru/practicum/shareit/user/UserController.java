@@ -1,24 +1,78 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestController
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
+@Slf4j
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserStreamProperties streamProperties;
 
+    /**
+     * Без size возвращает всех пользователей разом; большие списки следует читать страницами
+     * или потоком /users/stream.
+     */
     @GetMapping
-    public Collection<UserDto> getAllUsers() {
+    public Collection<UserDto> getAllUsers(@RequestParam(value = "afterId", defaultValue = "0") final Long afterId,
+                                           @RequestParam(value = "size", required = false) final Integer size) {
+        if (size != null) {
+            return userService.findAllAfter(afterId, size);
+        }
         return userService.findAll();
     }
 
+    /**
+     * Все пользователи в формате NDJSON, по объекту на строку. Ответ пишется по мере чтения из базы.
+     * Если поток не успел за shareit.user-stream.timeout, он завершается после очередной строки,
+     * и остальных пользователей нужно дочитать страницами с afterId последнего полученного.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = output -> {
+            long deadline = System.nanoTime() + streamProperties.getTimeout().toNanos();
+            AtomicLong lastId = new AtomicLong();
+            AtomicBoolean timedOut = new AtomicBoolean();
+            try {
+                userService.streamAll(user -> {
+                    if (System.nanoTime() - deadline >= 0) {
+                        timedOut.set(true);
+                        return false;
+                    }
+                    writeLine(output, user);
+                    lastId.set(user.getId());
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (timedOut.get()) {
+                log.warn("Поток пользователей завершён по таймауту {} после id {}", streamProperties.getTimeout(),
+                        lastId.get());
+            }
+            output.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping
     public UserDto createNewUser(@RequestBody final UserDto userDto) {
         return userService.addUser(userDto);
@@ -38,4 +92,13 @@ public class UserController {
     public void deleteUser(@PathVariable final Long id) {
         userService.deleteUserById(id);
     }
+
+    private void writeLine(OutputStream output, UserDto user) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(user));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
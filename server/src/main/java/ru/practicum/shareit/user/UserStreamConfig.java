@@ -0,0 +1,28 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Таймаут асинхронных ответов, не задающих собственного. Из таких ответов есть только поток
+ * /users/stream: ленты запросов задают таймаут сами. Поток завершается сам по истечении своего срока,
+ * а таймаут с запасом обрывает его, только если запись строки зависла.
+ */
+@Configuration
+@EnableConfigurationProperties(UserStreamProperties.class)
+@RequiredArgsConstructor
+public class UserStreamConfig implements WebMvcConfigurer {
+    private static final Duration CLOSE_GRACE = Duration.ofSeconds(30);
+
+    private final UserStreamProperties properties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(properties.getTimeout().plus(CLOSE_GRACE).toMillis());
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.user-stream")
+public class UserStreamProperties {
+    /**
+     * Сколько может длиться поток /users/stream. По истечении срока поток завершается после очередной
+     * строки, и клиент дочитывает остальных пользователей страницами с afterId последнего полученного.
+     */
+    private Duration timeout = Duration.ofMinutes(10);
+}
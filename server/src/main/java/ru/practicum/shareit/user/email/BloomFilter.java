@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user.email;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума для строк. Отрицательный ответ точен, положительный ошибочен с заданной вероятностью,
+ * пока в фильтр добавлено не больше expectedInsertions строк. Добавление и проверка потокобезопасны
+ * без блокировок; удалить строку из фильтра нельзя.
+ */
+class BloomFilter {
+    private static final double LN2 = Math.log(2);
+    private static final long SECOND_HASH_SEED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / insertions * LN2));
+    }
+
+    void add(String value) {
+        long hash = fnv1a(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ SECOND_HASH_SEED) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            words.accumulateAndGet((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = fnv1a(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ SECOND_HASH_SEED) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getBitCount() {
+        return bitCount;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
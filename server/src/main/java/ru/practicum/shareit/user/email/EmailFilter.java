@@ -0,0 +1,115 @@
+package ru.practicum.shareit.user.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр Блума по email пользователей: отвечает «точно свободен» без запроса к базе.
+ * Строится из базы при старте и раз в rebuild-interval, что заодно забывает email удалённых пользователей.
+ * Email, добавленные через другие экземпляры, фильтр видит только после перестроения, поэтому
+ * последней проверкой остаётся ограничение уникальности в базе.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(EmailFilterProperties.class)
+public class EmailFilter implements SmartInitializingSingleton, AutoCloseable {
+    private final UserRepository userRepository;
+    private final EmailFilterProperties properties;
+    private final Counter absent;
+    private final Counter maybe;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private ScheduledExecutorService rebuilder;
+
+    public EmailFilter(UserRepository userRepository, EmailFilterProperties properties, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.absent = meterRegistry.counter("shareit.user.email.filter", "result", "absent");
+        this.maybe = meterRegistry.counter("shareit.user.email.filter", "result", "maybe");
+    }
+
+    /**
+     * @return false, если email точно не занят; true, если занят или фильтр ещё не построен
+     */
+    public boolean mightContain(String email) {
+        BloomFilter current = filter;
+        boolean result = current == null || current.mightContain(email);
+        (result ? maybe : absent).increment();
+        return result;
+    }
+
+    /**
+     * Вызывается после записи email в базу. Если транзакция откатится, email останется в фильтре
+     * до перестроения и будет лишь проверен запросом.
+     */
+    public void add(String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(email);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(email);
+        }
+    }
+
+    /**
+     * Строит фильтр с запасом на двукратный рост числа пользователей и подменяет действующий целиком.
+     */
+    void rebuild() {
+        long expected = Math.max(properties.getExpectedEmails(), userRepository.count() * 2);
+        BloomFilter next = new BloomFilter(expected, properties.getFalsePositiveRate());
+        building = next;
+        try {
+            long lastId = 0;
+            List<User> batch;
+            do {
+                batch = userRepository.findAllAfter(lastId, PageRequest.ofSize(properties.getRebuildBatchSize()));
+                for (User user : batch) {
+                    next.add(user.getEmail());
+                    lastId = user.getId();
+                }
+            } while (batch.size() == properties.getRebuildBatchSize());
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.debug("Фильтр email перестроен, бит: {}", next.getBitCount());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.getRebuildInterval().toMillis();
+        rebuilder.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Не удалось перестроить фильтр email: {}", e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+}
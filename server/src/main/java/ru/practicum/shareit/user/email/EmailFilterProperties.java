@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.email;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.email-filter")
+public class EmailFilterProperties {
+    private long expectedEmails = 100000;
+    private double falsePositiveRate = 0.01;
+    private Duration rebuildInterval = Duration.ofHours(1);
+    private int rebuildBatchSize = 1000;
+}
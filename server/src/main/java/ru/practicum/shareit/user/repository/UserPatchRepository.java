@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+public interface UserPatchRepository {
+    /**
+     * Меняет переданные поля пользователя одним запросом; null оставляет поле как есть,
+     * хотя бы одно поле должно быть задано.
+     *
+     * @return пользователь после изменения или пусто, если его нет
+     */
+    Optional<User> patch(Long userId, @Nullable String name, @Nullable String email);
+}
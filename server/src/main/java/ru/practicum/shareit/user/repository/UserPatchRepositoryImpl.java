@@ -0,0 +1,23 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.jdbc.ReturningUpdate;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+class UserPatchRepositoryImpl implements UserPatchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> patch(Long userId, String name, String email) {
+        return new ReturningUpdate(User.class, "users", "id", "name", "email")
+                .set("name", name)
+                .set("email", email)
+                .whereId(userId)
+                .execute(entityManager)
+                .map(row -> new User(((Number) row[0]).longValue(), (String) row[1], (String) row[2]));
+    }
+}
@@ -1,8 +1,34 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserPatchRepository {
+    String STREAM_FETCH_SIZE = "500";
+
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findAllAfter(Long afterId, Pageable pageable);
+
+    /**
+     * Читает пользователей курсором по {@value #STREAM_FETCH_SIZE} строк. Строки сразу становятся DTO и не
+     * попадают в контекст персистентности, поэтому память не растёт с числом пользователей.
+     * Поток нужно закрыть и дочитать внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u ORDER BY u.id")
+    Stream<UserDto> streamAll();
 }
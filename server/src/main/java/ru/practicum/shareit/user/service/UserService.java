@@ -3,10 +3,22 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 
 public interface UserService {
     Collection<UserDto> findAll();
 
+    /**
+     * @return не более size пользователей с id больше afterId по возрастанию id
+     */
+    List<UserDto> findAllAfter(Long afterId, Integer size);
+
+    /**
+     * Передаёт всех пользователей по возрастанию id, не собирая их в список, пока consumer возвращает true.
+     */
+    void streamAll(Predicate<UserDto> consumer);
+
     UserDto addUser(UserDto userDto);
 
     UserDto getUserById(Long userId);
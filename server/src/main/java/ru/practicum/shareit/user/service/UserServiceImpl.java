@@ -1,26 +1,41 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.email.EmailFilter;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @Slf4j
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository userRepository;
+    private final EmailFilter emailFilter;
 
     @Override
     public Collection<UserDto> findAll() {
@@ -30,10 +45,32 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> findAllAfter(Long afterId, Integer size) {
+        return userRepository.findAllAfter(afterId, PageRequest.ofSize(size))
+                .stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void streamAll(Predicate<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            Iterator<UserDto> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                if (!consumer.test(iterator.next())) {
+                    return;
+                }
+            }
+        }
+    }
+
     @Override
     @Transactional
     public UserDto addUser(UserDto userDto) {
-        User saved = userRepository.save(UserMapper.toUser(userDto));
+        checkEmailIsFree(userDto.getEmail(), null);
+        User saved = saveChecked(() -> userRepository.save(UserMapper.toUser(userDto)), userDto.getEmail());
+        emailFilter.add(saved.getEmail());
         log.info("Пользователь id {} добавлен", saved.getId());
         return UserMapper.toUserDto(saved);
     }
@@ -49,15 +86,18 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
-        User userForUpdate = UserMapper.toUser(getUserById(id));
-        User newUser = UserMapper.toUser(userDto);
-
-        Optional.ofNullable(newUser.getName()).ifPresent(userForUpdate::setName);
-        Optional.ofNullable(newUser.getEmail()).ifPresent(userForUpdate::setEmail);
-
-        userRepository.save(userForUpdate);
+        if (userDto.getName() == null && userDto.getEmail() == null) {
+            return getUserById(id);
+        }
+        checkEmailIsFree(userDto.getEmail(), id);
+        User updated = saveChecked(() -> userRepository.patch(id, userDto.getName(), userDto.getEmail()),
+                userDto.getEmail())
+                .orElseThrow(() -> new ObjectNotFoundException(String.format("Пользователь id %s не найден", id)));
+        if (userDto.getEmail() != null) {
+            emailFilter.add(userDto.getEmail());
+        }
         log.info("Пользователь id {} обновлен", id);
-        return UserMapper.toUserDto(userForUpdate);
+        return UserMapper.toUserDto(updated);
     }
 
     @Override
@@ -65,4 +105,35 @@ public class UserServiceImpl implements UserService {
     public void deleteUserById(Long userId) {
         userRepository.deleteById(userId);
     }
+
+    /**
+     * Запрос к базе делается, только если фильтр не может исключить email.
+     */
+    private void checkEmailIsFree(String email, Long userId) {
+        if (email == null || !emailFilter.mightContain(email)) {
+            return;
+        }
+        boolean taken = userId == null
+                ? userRepository.existsByEmail(email)
+                : userRepository.existsByEmailAndIdNot(email, userId);
+        if (taken) {
+            throw new EmailAlreadyExistsException(String.format("Пользователь с email %s уже существует", email));
+        }
+    }
+
+    /**
+     * Email мог занять параллельный запрос после проверки; нарушение ограничения уникальности
+     * превращается в тот же конфликт.
+     */
+    private <T> T saveChecked(Supplier<T> save, String email) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (cause.toUpperCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                throw new EmailAlreadyExistsException(String.format("Пользователь с email %s уже существует", email));
+            }
+            throw e;
+        }
+    }
 }
@@ -16,6 +16,8 @@ CREATE TABLE IF NOT EXISTS requests (
   CONSTRAINT fk_requests_user FOREIGN KEY(requestor_id) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
+
 CREATE TABLE IF NOT EXISTS items (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
@@ -23,6 +25,7 @@ CREATE TABLE IF NOT EXISTS items (
   available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL,
   request_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
 
   CONSTRAINT pk_item PRIMARY KEY(id),
   CONSTRAINT fk_item_user FOREIGN KEY(owner_id) REFERENCES users(id),
@@ -36,11 +39,15 @@ CREATE TABLE IF NOT EXISTS bookings (
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   status VARCHAR(60) DEFAULT 'WAITING',
+  version BIGINT NOT NULL DEFAULT 0,
 
   CONSTRAINT fk_booking_user FOREIGN KEY(booker_id) REFERENCES users(id),
   CONSTRAINT fk_booking_item FOREIGN KEY(item_id) REFERENCES items(id)
 );
 
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
 CREATE TABLE IF NOT EXISTS comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   text VARCHAR(5000) NOT NULL,
@@ -52,3 +59,42 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT fk_comment_item FOREIGN KEY(item_id) REFERENCES items(id)
 );
 
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  type VARCHAR(60) NOT NULL,
+  recipient_id BIGINT NOT NULL,
+  payload VARCHAR(10000) NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE DEFAULT now(),
+  published_at TIMESTAMP WITHOUT TIME ZONE,
+
+  CONSTRAINT fk_outbox_user FOREIGN KEY(recipient_id) REFERENCES users(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_unpublished ON outbox_events (published_at, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_recipient ON outbox_events (recipient_id, type, id);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  operation VARCHAR(100) NOT NULL,
+  idempotency_key VARCHAR(255) NOT NULL,
+  request VARCHAR(10000) NOT NULL,
+  response VARCHAR(10000),
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+
+  CONSTRAINT uq_idempotency_key UNIQUE (user_id, operation, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_created ON idempotency_keys (created);
+
+CREATE TABLE IF NOT EXISTS request_suggestions (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  request_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  score DOUBLE PRECISION NOT NULL,
+
+  CONSTRAINT fk_suggestion_request FOREIGN KEY(request_id) REFERENCES requests(id),
+  CONSTRAINT fk_suggestion_item FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE,
+  CONSTRAINT uq_suggestion_request_item UNIQUE (request_id, item_id)
+);
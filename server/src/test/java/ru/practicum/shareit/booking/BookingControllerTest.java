@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,12 +12,15 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +47,14 @@ public class BookingControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void init() {
+        when(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
+    }
 
     @Test
     void createBooking() throws Exception {
@@ -63,6 +75,40 @@ public class BookingControllerTest {
         verify(bookingService).createBooking(anyLong(), any(BookingShortDto.class));
     }
 
+    @Test
+    void createBookingPassesIdempotencyKey() throws Exception {
+        when(bookingService.createBooking(anyLong(), any(BookingShortDto.class))).thenReturn(bookingDto);
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("Idempotency-Key", "booking-key")
+                        .content(objectMapper.writeValueAsString(bookingShortDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
+
+        verify(idempotencyService).execute(eq("createBooking"), eq(1L), eq("booking-key"),
+                eq(bookingShortDto), eq(BookingDto.class), any());
+    }
+
+    @Test
+    void createBookingWithReusedIdempotencyKeyAndOtherPayload() throws Exception {
+        doThrow(new IdempotencyKeyReusedException("Ключ reused-key уже использован для другого запроса"))
+                .when(idempotencyService).execute(eq("createBooking"), eq(1L), eq("reused-key"), any(), any(), any());
+
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .header("Idempotency-Key", "reused-key")
+                        .content(objectMapper.writeValueAsString(bookingShortDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(bookingService, never()).createBooking(anyLong(), any(BookingShortDto.class));
+    }
+
     @Test
     void approveBooking() throws Exception {
         when(bookingService.approveBooking(anyLong(), anyLong(), anyBoolean())).thenReturn(approvedBooking);
@@ -93,4 +93,34 @@ public class JpaBookingRepositoryTest {
         assertEquals(booker, actualBooking.getBooker());
         assertEquals(BookingStatus.WAITING, actualBooking.getStatus());
     }
+
+    @Test
+    void findByIdForParticipant() {
+        User stranger = userRepository.save(User.builder().name("stranger").email("stranger@mail.ru").build());
+
+        Booking byOwner = bookingRepository.findByIdForParticipant(booking.getId(), owner.getId()).orElseThrow();
+
+        assertEquals(owner.getId(), byOwner.getItem().getOwner().getId());
+        assertEquals(booker.getId(), byOwner.getBooker().getId());
+        assertTrue(bookingRepository.findByIdForParticipant(booking.getId(), booker.getId()).isPresent());
+        assertTrue(bookingRepository.findByIdForParticipant(booking.getId(), stranger.getId()).isEmpty());
+    }
+
+    @Test
+    void decideWaitingChecksOwnerStatusAndVersion() {
+        Long version = bookingRepository.findById(booking.getId()).orElseThrow().getVersion();
+
+        assertEquals(0, bookingRepository.decideWaiting(booking.getId(), booker.getId(), version,
+                BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.decideWaiting(booking.getId(), owner.getId(), version + 1,
+                BookingStatus.APPROVED));
+        assertEquals(1, bookingRepository.decideWaiting(booking.getId(), owner.getId(), version,
+                BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.decideWaiting(booking.getId(), owner.getId(), version + 1,
+                BookingStatus.REJECTED));
+
+        Booking decided = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(BookingStatus.APPROVED, decided.getStatus());
+        assertEquals(version + 1, decided.getVersion());
+    }
 }
@@ -13,6 +13,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -51,6 +52,7 @@ public class BookingServiceImplTest {
         booking = BookingMapper.toBooking(bookingShortDto);
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setVersion(0L);
     }
 
     @Test
@@ -123,7 +125,9 @@ public class BookingServiceImplTest {
     void testApproveBooking() {
         Long bookingItemOwner = booking.getItem().getOwner().getId();
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdWithItemAndBooker(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.decideWaiting(booking.getId(), bookingItemOwner, 0L, BookingStatus.APPROVED))
+                .thenReturn(1);
 
         BookingDto actualDto = bookingService.approveBooking(booking.getId(), bookingItemOwner, true);
 
@@ -133,40 +137,38 @@ public class BookingServiceImplTest {
         assertEquals(booking.getItem().getId(), actualDto.getItem().getId());
         assertEquals(booking.getBooker().getId(), actualDto.getBooker().getId());
         assertEquals(actualDto.getStatus(), BookingStatus.APPROVED);
+        assertEquals(1L, booking.getVersion());
 
-        verify(bookingRepository).save(booking);
+        verify(bookingRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void testApproveBookingWhenItemOwnerWantsReject() {
-        booking.setItem(item);
-        booking.setBooker(booker);
-
         Long bookingItemOwner = booking.getItem().getOwner().getId();
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        when(bookingRepository.findByIdWithItemAndBooker(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.decideWaiting(booking.getId(), bookingItemOwner, 0L, BookingStatus.REJECTED))
+                .thenReturn(1);
 
         BookingDto actualDto = bookingService.approveBooking(booking.getId(), bookingItemOwner, false);
 
         assertEquals(booking.getId(), actualDto.getId());
-        assertEquals(booking.getStart(), actualDto.getStart());
-        assertEquals(booking.getEnd(), actualDto.getEnd());
         assertEquals(booking.getItem().getId(), actualDto.getItem().getId());
         assertEquals(booking.getBooker().getId(), actualDto.getBooker().getId());
         assertEquals(actualDto.getStatus(), BookingStatus.REJECTED);
-
-        verify(bookingRepository).save(booking);
     }
 
     @Test
     void testApproveBookingWithWrongBookingId() {
         Long wrongBookingId = 100L;
-        when(bookingRepository.findById(wrongBookingId)).thenReturn(Optional.empty());
+        Long bookingItemOwner = booking.getItem().getOwner().getId();
+        when(bookingRepository.findByIdWithItemAndBooker(wrongBookingId)).thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () ->
-                bookingService.approveBooking(wrongBookingId, booking.getItem().getOwner().getId(), true));
+                bookingService.approveBooking(wrongBookingId, bookingItemOwner, true));
 
-        verify(bookingRepository).findById(wrongBookingId);
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).decideWaiting(anyLong(), anyLong(), anyLong(), any());
     }
 
     @Test
@@ -174,31 +176,45 @@ public class BookingServiceImplTest {
         Long bookingItemOwner = booking.getItem().getOwner().getId();
         booking.setStatus(BookingStatus.REJECTED);
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdWithItemAndBooker(booking.getId())).thenReturn(Optional.of(booking));
 
         assertThrows(BadRequestException.class, () ->
                 bookingService.approveBooking(booking.getId(), bookingItemOwner, true));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).decideWaiting(anyLong(), anyLong(), anyLong(), any());
     }
 
     @Test
     void testApproveBookingWithWrongItemOwner() {
         User notItemOwner = new User(3L, "User3", "user3@mail.ru");
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdWithItemAndBooker(booking.getId())).thenReturn(Optional.of(booking));
 
         assertThrows(ObjectNotFoundException.class, () ->
                 bookingService.approveBooking(booking.getId(), notItemOwner.getId(), true));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).decideWaiting(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testApproveBookingWhenVersionChanged() {
+        Long bookingItemOwner = booking.getItem().getOwner().getId();
+
+        when(bookingRepository.findByIdWithItemAndBooker(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.decideWaiting(booking.getId(), bookingItemOwner, 0L, BookingStatus.APPROVED))
+                .thenReturn(0);
+
+        assertThrows(ConflictException.class, () ->
+                bookingService.approveBooking(booking.getId(), bookingItemOwner, true));
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
     }
 
     @Test
     void testGetBookingByItemOwner() {
         Long bookingItemOwner = booking.getItem().getOwner().getId();
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForParticipant(booking.getId(), bookingItemOwner))
+                .thenReturn(Optional.of(booking));
 
         BookingDto actualDto = bookingService.getBooking(booking.getId(), bookingItemOwner);
 
@@ -209,31 +225,29 @@ public class BookingServiceImplTest {
         assertEquals(booking.getBooker().getId(), actualDto.getBooker().getId());
         assertEquals(actualDto.getStatus(), BookingStatus.WAITING);
 
-        verify(bookingRepository).findById(booking.getId());
+        verify(bookingRepository).findByIdForParticipant(booking.getId(), bookingItemOwner);
+        verify(bookingRepository, never()).existsById(anyLong());
     }
 
     @Test
     void testGetBookingByBooker() {
         Long bookerId = booking.getBooker().getId();
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForParticipant(booking.getId(), bookerId)).thenReturn(Optional.of(booking));
 
         BookingDto actualDto = bookingService.getBooking(booking.getId(), bookerId);
 
         assertEquals(booking.getId(), actualDto.getId());
-        assertEquals(booking.getStart(), actualDto.getStart());
-        assertEquals(booking.getEnd(), actualDto.getEnd());
         assertEquals(booking.getItem().getId(), actualDto.getItem().getId());
         assertEquals(booking.getBooker().getId(), actualDto.getBooker().getId());
         assertEquals(actualDto.getStatus(), BookingStatus.WAITING);
-
-        verify(bookingRepository).findById(booking.getId());
     }
 
     @Test
     void testGetBookingByOtherUser() {
         User otherUser = new User(4L, "user4", "user4@mail.ru");
 
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findByIdForParticipant(booking.getId(), otherUser.getId())).thenReturn(Optional.empty());
+        when(bookingRepository.existsById(booking.getId())).thenReturn(true);
 
         assertThrows(ObjectNotFoundException.class, () -> bookingService.getBooking(booking.getId(), otherUser.getId()));
     }
@@ -241,7 +255,8 @@ public class BookingServiceImplTest {
     @Test
     void testGetBookingsForUserItemsWithIncorrectStatus() {
         List<Booking> userBookings = new ArrayList<>();
-        userBookings.add(new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.REJECTED));
+        userBookings.add(Booking.builder().id(1L).start(now.minusDays(2)).end(now.minusDays(1)).item(item).booker(booker)
+                .status(BookingStatus.REJECTED).build());
 
         assertThrows(BadRequestException.class, () -> bookingService.getBookingsForUserItems(owner.getId(),
                 "INCORRECT", 0, 10));
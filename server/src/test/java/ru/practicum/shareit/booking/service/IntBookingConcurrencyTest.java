@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IntBookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+    @SpyBean
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@concurrency.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@concurrency.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Дрель ударная").available(true)
+                .owner(owner).build());
+    }
+
+    /**
+     * Решения фиксируются вне транзакции теста, поэтому тест удаляет свои данные сам.
+     */
+    @AfterEach
+    void deleteData() {
+        bookingRepository.deleteAllById(bookingIds);
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    /**
+     * Все решения доходят до записи, прочитав бронирование ожидающим, поэтому каждый проигравший
+     * проиграл гонку и должен получить 409.
+     */
+    @Test
+    void testOnlyOneConcurrentDecisionWins() throws InterruptedException, ExecutionException {
+        // репозиторий — JDK-прокси, настоящий метод шпиона вызывается через его ответ по умолчанию
+        Answer<?> repository = mockingDetails(bookingRepository).getMockCreationSettings().getDefaultAnswer();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CyclicBarrier readAll = new CyclicBarrier(THREADS);
+                doAnswer(invocation -> {
+                    readAll.await(10, TimeUnit.SECONDS);
+                    return repository.answer(invocation);
+                }).when(bookingRepository).decideWaiting(anyLong(), anyLong(), anyLong(), any());
+
+                Booking booking = bookingRepository.save(Booking.builder()
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
+                        .item(item).booker(booker).status(BookingStatus.WAITING).build());
+                bookingIds.add(booking.getId());
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<BookingDto>> decisions = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    boolean approve = i % 2 == 0;
+                    decisions.add(executor.submit(() -> {
+                        start.await();
+                        return bookingService.approveBooking(booking.getId(), owner.getId(), approve);
+                    }));
+                }
+                start.countDown();
+
+                List<BookingDto> winners = new ArrayList<>();
+                for (Future<BookingDto> decision : decisions) {
+                    try {
+                        winners.add(decision.get(10, TimeUnit.SECONDS));
+                    } catch (ExecutionException e) {
+                        assertTrue(e.getCause() instanceof ConflictException, e.getCause().toString());
+                    } catch (TimeoutException e) {
+                        fail("Решение по бронированию не завершилось");
+                    }
+                }
+
+                assertEquals(1, winners.size());
+                Booking decided = bookingRepository.findById(booking.getId()).orElseThrow();
+                assertEquals(winners.get(0).getStatus(), decided.getStatus());
+                assertEquals(1L, decided.getVersion());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
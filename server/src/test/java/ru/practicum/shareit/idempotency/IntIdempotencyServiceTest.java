@@ -0,0 +1,156 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.IdempotencyKeyReusedException;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IntIdempotencyServiceTest {
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private IdempotencyRecordRepository repository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private final AtomicLong calls = new AtomicLong();
+
+    /**
+     * Ключи фиксируются вместе с ответом, поэтому тест удаляет их сам.
+     */
+    @AfterEach
+    void deleteKeys() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedKeyReturnsStoredResponse() {
+        UserDto first = create(idempotencyService, 1L, "key", "request");
+
+        assertEquals(first, create(idempotencyService, 1L, "key", "request"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testRetryOnOtherInstanceReturnsStoredResponse() {
+        IdempotencyService otherInstance = newInstance(Duration.ofHours(1));
+
+        UserDto first = create(idempotencyService, 1L, "key", "request");
+
+        assertEquals(first, create(otherInstance, 1L, "key", "request"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testKeysAreScopedByUser() {
+        assertEquals(1L, create(idempotencyService, 1L, "key", "request").getId());
+        assertEquals(2L, create(idempotencyService, 2L, "key", "request").getId());
+    }
+
+    @Test
+    void testRequestWithoutKeyIsAlwaysExecuted() {
+        create(idempotencyService, 1L, null, "request");
+        create(idempotencyService, 1L, null, "request");
+
+        assertEquals(2, calls.get());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void testReusedKeyWithOtherPayloadIsRejected() {
+        create(idempotencyService, 1L, "key", "request");
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> create(idempotencyService, 1L, "key", "other request"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailedRequestIsNotStored() {
+        assertThrows(BadRequestException.class, () -> idempotencyService.execute("create", 1L, "key", "request",
+                UserDto.class, () -> {
+                    throw new BadRequestException("ошибка");
+                }));
+
+        assertEquals(0, repository.count());
+        assertEquals(1L, create(idempotencyService, 1L, "key", "request").getId());
+    }
+
+    @Test
+    void testExpiredKeyIsExecutedAgain() {
+        IdempotencyService expiring = newInstance(Duration.ZERO);
+
+        create(expiring, 1L, "key", "request");
+
+        assertEquals(2L, create(expiring, 1L, "key", "request").getId());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void testConcurrentRetryWaitsForFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<UserDto> first = executor.submit(() -> idempotencyService.execute("create", 1L, "key", "request",
+                    UserDto.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return user(calls.incrementAndGet());
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<UserDto> retry = executor.submit(() -> create(newInstance(Duration.ofHours(1)), 1L, "key",
+                    "request"));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(1L, retry.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UserDto create(IdempotencyService service, Long userId, String key, String request) {
+        return service.execute("create", userId, key, request, UserDto.class,
+                () -> user(calls.incrementAndGet()));
+    }
+
+    private IdempotencyService newInstance(Duration ttl) {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setTtl(ttl);
+        return new IdempotencyService(repository, transactionManager, objectMapper, properties);
+    }
+
+    private static UserDto user(long id) {
+        return UserDto.builder().id(id).name("user" + id).email("user" + id + "@mail.ru").build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
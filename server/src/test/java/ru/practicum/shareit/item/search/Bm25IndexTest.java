@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Bm25IndexTest {
+    private final Bm25Index index = new Bm25Index();
+
+    @Test
+    void testRareTermsRankHigherAndWordFormsMatch() {
+        index.put(1L, 10L, "Дрель ударная для бетона");
+        index.put(2L, 10L, "Набор свёрл для дрели");
+        index.put(3L, 10L, "Стремянка для дачи");
+        index.put(4L, 10L, "Палатка для похода");
+
+        List<Long> found = ids(index.search("Нужна дрелью просверлить бетон", 10, 99L));
+
+        assertEquals(List.of(1L, 2L), found);
+    }
+
+    @Test
+    void testOwnItemsAreExcludedAndLimitIsApplied() {
+        index.put(1L, 10L, "Дрель");
+        index.put(2L, 20L, "Дрель аккумуляторная");
+        index.put(3L, 30L, "Дрель сетевая");
+
+        assertEquals(List.of(2L, 3L), ids(index.search("дрель", 5, 10L)).stream().sorted()
+                .collect(Collectors.toList()));
+        assertEquals(1, index.search("дрель", 1, 10L).size());
+    }
+
+    @Test
+    void testReplacedAndRemovedItemsAreNotFound() {
+        index.put(1L, 10L, "Дрель");
+        index.put(1L, 10L, "Пила");
+        index.put(2L, 10L, "Дрель");
+        index.remove(2L);
+
+        assertTrue(index.search("дрель", 5, 99L).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("пила", 5, 99L)));
+        assertEquals(1, index.size());
+    }
+
+    private static List<Long> ids(List<Bm25Index.Match> matches) {
+        return matches.stream().map(Bm25Index.Match::getItemId).collect(Collectors.toList());
+    }
+}
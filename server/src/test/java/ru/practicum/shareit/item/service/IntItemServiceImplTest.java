@@ -6,16 +6,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(
@@ -29,6 +37,10 @@ public class IntItemServiceImplTest {
     @Autowired
     private final UserRepository userRepository;
     @Autowired
+    private final ItemRequestRepository requestRepository;
+    @Autowired
+    private final RequestSuggestionRepository suggestionRepository;
+    @Autowired
     private final ItemServiceImpl itemService;
     private final User user = User.builder().name("user").email("user@mail.ru").build();
     private final Item item = Item.builder().name("itemName").description("item1Desc").available(true).owner(user).build();
@@ -62,5 +74,39 @@ public class IntItemServiceImplTest {
         assertNotNull(secondItem.getDescription());
         assertNotNull(secondItem.getAvailable());
     }
-}
 
+    @Test
+    void testSuggestedItemCanBeDeleted() {
+        User requestor = userRepository.save(User.builder().name("requestor").email("requestor@mail.ru").build());
+        ItemRequest request = requestRepository.save(ItemRequest.builder().description("Нужна вещь")
+                .requestor(requestor).build());
+        suggestionRepository.save(RequestSuggestion.builder().requestId(request.getId()).item(item).score(1.0)
+                .build());
+        suggestionRepository.flush();
+
+        itemService.deleteItem(item.getId());
+        itemRepository.flush();
+
+        assertFalse(itemRepository.existsById(item.getId()));
+        assertEquals(0, suggestionRepository.count());
+    }
+
+    @Test
+    void testOwnerUpdatesOnlyGivenFieldsInOneStatement() {
+        ItemDto updated = itemService.updateItem(user.getId(), item.getId(), ItemDto.builder().available(false).build());
+
+        assertEquals(item.getId(), updated.getId());
+        assertEquals("itemName", updated.getName());
+        assertEquals("item1Desc", updated.getDescription());
+        assertFalse(updated.getAvailable());
+    }
+
+    @Test
+    void testUpdateByNotOwnerOrOfMissingItemIsRejected() {
+        User other = userRepository.save(User.builder().name("other").email("other@mail.ru").build());
+        ItemDto itemDto = ItemDto.builder().name("Stolen").build();
+
+        assertThrows(ValidationException.class, () -> itemService.updateItem(other.getId(), item.getId(), itemDto));
+        assertThrows(ObjectNotFoundException.class, () -> itemService.updateItem(user.getId(), -1L, itemDto));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.model.Booking;
@@ -18,6 +19,9 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.request.feed.ItemResponseFeed;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -37,7 +41,8 @@ public class ItemServiceImplTest {
     private final User user = new User(1L, "user", "user@mail.ru");
     private final ItemDto itemDto = ItemDto.builder().id(1L).name("itemName").description("itemDesc")
             .available(true).requestId(1L).build();
-    private final ItemRequest request = ItemRequest.builder().id(itemDto.getRequestId()).build();
+    private final User requestor = new User(2L, "requestor", "requestor@mail.ru");
+    private final ItemRequest request = ItemRequest.builder().id(itemDto.getRequestId()).requestor(requestor).build();
     @Mock
     ItemRepository itemRepository;
     @Mock
@@ -48,6 +53,10 @@ public class ItemServiceImplTest {
     CommentRepository commentRepository;
     @Mock
     ItemRequestRepository requestRepository;
+    @Mock
+    OutboxService outboxService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
     @InjectMocks
     ItemServiceImpl itemService;
 
@@ -71,6 +80,8 @@ public class ItemServiceImplTest {
         verify(userRepository).findById(user.getId());
         verify(requestRepository).findById(itemDto.getRequestId());
         verify(itemRepository).save(item);
+        verify(outboxService).append(ItemResponseFeed.EVENT_TYPE, requestor.getId(), createdItem);
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -100,6 +111,7 @@ public class ItemServiceImplTest {
         verify(userRepository).findById(user.getId());
         verify(requestRepository).findById(100L);
         verify(itemRepository, never()).save(any(Item.class));
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -144,42 +156,45 @@ public class ItemServiceImplTest {
 
     @Test
     void testUpdateItem() {
-        Item item = Item.builder().id(1L).name("item2Name").description("item2Desc").available(true)
+        Item item = Item.builder().id(1L).name("Updated Item").description("Updated Description").available(true)
                 .owner(user).requestId(1L).build();
-        ItemDto itemDto = ItemMapper.toItemDto(item);
+        ItemDto itemDto = ItemDto.builder().name("Updated Item").description("Updated Description").build();
         Long itemId = item.getId();
 
-        itemDto.setName("Updated Item");
-        itemDto.setDescription("Updated Description");
-
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.patch(itemId, user.getId(), "Updated Item", "Updated Description", null))
+                .thenReturn(Optional.of(item));
 
         ItemDto actualItemDto = itemService.updateItem(user.getId(), itemId, itemDto);
 
-        assertEquals(itemDto, actualItemDto);
-        assertEquals("Updated Item", item.getName());
-        assertEquals("Updated Description", item.getDescription());
-        verify(itemRepository).findById(itemId);
-        verify(itemRepository).save(item);
+        assertEquals(ItemMapper.toItemDto(item), actualItemDto);
+        verify(itemRepository).patch(itemId, user.getId(), "Updated Item", "Updated Description", null);
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
         verifyNoMoreInteractions(itemRepository, commentRepository, bookingRepository, userRepository);
     }
 
     @Test
     void testUpdateItemWithUserNotOwner() {
         User userNotOwner = new User(2L, "user2", "user2@mail.ru");
-        Item item = Item.builder().id(1L).name("item2Name").description("item2Desc").available(true)
-                .owner(user).requestId(1L).build();
-        ItemDto itemDto = ItemMapper.toItemDto(item);
-        Long itemId = item.getId();
-
-        itemDto.setName("Updated Item");
-        itemDto.setDescription("Updated Description");
+        ItemDto itemDto = ItemDto.builder().name("Updated Item").description("Updated Description").build();
+        Long itemId = 1L;
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.patch(itemId, userNotOwner.getId(), "Updated Item", "Updated Description", null))
+                .thenReturn(Optional.empty());
+        when(itemRepository.existsById(itemId)).thenReturn(true);
 
         assertThrows(ValidationException.class, () ->
                 itemService.updateItem(userNotOwner.getId(), itemId, itemDto));
-        verify(itemRepository).findById(itemId);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testUpdateMissingItem() {
+        ItemDto itemDto = ItemDto.builder().available(false).build();
+
+        when(itemRepository.patch(100L, user.getId(), null, null, false)).thenReturn(Optional.empty());
+        when(itemRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> itemService.updateItem(user.getId(), 100L, itemDto));
     }
 
     @Test
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptivePoolSizerTest {
+
+    @Test
+    void testPoolGrowsWhileThreadsWaitAndDatabaseKeepsUp() {
+        AdaptivePoolSizer sizer = sizer();
+
+        assertEquals(12, sizer.nextSize(10, 1, 3, 10, 2.0));
+        assertEquals(14, sizer.nextSize(12, 20, 0, 12, 2.5));
+        assertEquals(20, sizer.nextSize(19, 20, 4, 19, 2.5));
+    }
+
+    @Test
+    void testPoolShrinksWhenDatabaseSlowsDown() {
+        AdaptivePoolSizer sizer = sizer();
+        sizer.nextSize(10, 1, 0, 8, 2.0);
+
+        assertEquals(12, sizer.nextSize(14, 50, 5, 14, 10.0));
+        assertEquals(5, sizer.nextSize(6, 50, 5, 6, 10.0));
+    }
+
+    @Test
+    void testMicrosecondJitterIsNotTreatedAsSlowdown() {
+        AdaptivePoolSizer sizer = sizer();
+        sizer.nextSize(10, 1, 0, 8, 0.05);
+
+        assertEquals(12, sizer.nextSize(10, 1, 2, 10, 0.2));
+    }
+
+    @Test
+    void testIdlePoolShrinksSlowly() {
+        AdaptivePoolSizer sizer = sizer();
+
+        assertEquals(9, sizer.nextSize(10, 0.1, 0, 2, 2.0));
+        assertEquals(10, sizer.nextSize(10, 0.1, 0, 6, 2.0));
+        assertEquals(10, sizer.nextSize(10, -1, 0, 6, -1));
+    }
+
+    private static AdaptivePoolSizer sizer() {
+        PoolProperties properties = new PoolProperties();
+        properties.getAdaptive().setMinSize(5);
+        properties.getAdaptive().setMaxSize(20);
+        properties.getAdaptive().setStep(2);
+        properties.getAdaptive().setAcquireTarget(Duration.ofMillis(5));
+        properties.getAdaptive().setResponseTolerance(2.0);
+        return new AdaptivePoolSizer(properties, new ConnectionTracker(properties), null);
+    }
+}
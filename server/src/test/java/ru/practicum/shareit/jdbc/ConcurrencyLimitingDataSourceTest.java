@@ -0,0 +1,68 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitingDataSourceTest {
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testConnectionsAreLimitedAndReleasedOnClose() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 2, 10);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+        second.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testPermitIsReleasedWhenConnectionFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("нет соединения"));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 1, 10);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testLimitCanBeResizedWhileConnectionsAreHeld() throws SQLException {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 2, 10);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        dataSource.setMaxConcurrency(1);
+        first.close();
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        dataSource.setMaxConcurrency(3);
+        assertEquals(2, dataSource.getAvailablePermits());
+        second.close();
+        assertEquals(3, dataSource.getAvailablePermits());
+        assertEquals(3, dataSource.getMaxConcurrency());
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionTrackerTest {
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testHeldConnectionIsReportedAsLeakOnce() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConnectionTracker tracker = tracker(Duration.ofMillis(1));
+        tracker.bindTo(registry);
+        TrackedDataSource dataSource = new TrackedDataSource(targetDataSource, tracker);
+
+        Connection held = dataSource.getConnection();
+        Thread.sleep(5);
+
+        assertEquals(1, tracker.checkLeaks());
+        assertEquals(0, tracker.checkLeaks());
+        assertEquals(1, tracker.getLeakedConnections());
+        assertEquals(1, registry.get("shareit.db.connection.leaks").counter().count());
+
+        held.close();
+        held.close();
+        verify(connection, times(2)).close();
+        assertEquals(0, tracker.getLeakedConnections());
+        assertEquals(0, tracker.getOpenConnections());
+        assertEquals(1, registry.get("shareit.db.connection.usage").timer().count());
+    }
+
+    @Test
+    void testAcquireStackIsCapturedOnlyWhenEnabled() {
+        PoolProperties properties = new PoolProperties();
+        properties.setLeakDetectionThreshold(Duration.ofMillis(1));
+        ConnectionTracker tracker = new ConnectionTracker(properties);
+
+        assertNull(tracker.acquired(0).getAcquireStack());
+
+        properties.setCaptureAcquireStack(true);
+        ConnectionTracker capturing = new ConnectionTracker(properties);
+        assertNotNull(capturing.acquired(0).getAcquireStack());
+    }
+
+    @Test
+    void testAcquireTimeIsRecordedForFailedConnections() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("нет соединения"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConnectionTracker tracker = tracker(Duration.ZERO);
+        tracker.bindTo(registry);
+        TrackedDataSource dataSource = new TrackedDataSource(targetDataSource, tracker);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(1, registry.get("shareit.db.connection.acquire").timer().count());
+        assertTrue(tracker.getAcquireWindow().drainMeanMillis() >= 0);
+        assertEquals(0, tracker.getOpenConnections());
+    }
+
+    @Test
+    void testLeakDetectionCanBeDisabled() throws Exception {
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        ConnectionTracker tracker = tracker(Duration.ZERO);
+        TrackedDataSource dataSource = new TrackedDataSource(targetDataSource, tracker);
+
+        try (Connection ignored = dataSource.getConnection()) {
+            Thread.sleep(5);
+            assertEquals(0, tracker.checkLeaks());
+            assertEquals(1, tracker.getOpenConnections());
+        }
+    }
+
+    private static ConnectionTracker tracker(Duration leakDetectionThreshold) {
+        PoolProperties properties = new PoolProperties();
+        properties.setLeakDetectionThreshold(leakDetectionThreshold);
+        return new ConnectionTracker(properties);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.virtual-threads.enabled=true",
+                "shareit.datasource.pool.adaptive.enabled=true",
+                "shareit.datasource.pool.adaptive.min-size=12",
+                "shareit.datasource.pool.adaptive.interval=1h"
+        })
+public class IntConnectionPoolTest {
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testPoolIsTrackedAndSizedWithinBounds() throws SQLException {
+        userService.addUser(UserDto.builder().name("Pool").email("pool@mail.ru").build());
+
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertEquals(12, hikari.getMaximumPoolSize());
+        assertEquals(12, dataSource.unwrap(ConcurrencyLimitingDataSource.class).getMaxConcurrency());
+        assertTrue(dataSource.isWrapperFor(TrackedDataSource.class));
+        assertTrue(meterRegistry.get("shareit.db.connection.acquire").timer().count() >= 1);
+        assertTrue(meterRegistry.get("shareit.db.connection.usage").timer().count() >= 1);
+        assertEquals(12, meterRegistry.get("hikaricp.connections.max").tag("pool", "shareit-primary")
+                .gauge().value());
+        assertNotNull(meterRegistry.get("hikaricp.connections.pending").gauge());
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").timer().count() >= 1);
+    }
+}
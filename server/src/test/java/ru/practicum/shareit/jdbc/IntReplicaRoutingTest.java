@@ -0,0 +1,74 @@
+package ru.practicum.shareit.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.datasource.replicas.enabled=true",
+                "shareit.datasource.replicas.check-interval=50ms",
+                "shareit.datasource.replicas.lag-query=SELECT 0",
+                "shareit.datasource.replicas.instances[0].name=local",
+                "shareit.datasource.replicas.instances[0].url=" + IntReplicaRoutingTest.REPLICA_URL,
+                "shareit.datasource.replicas.instances[0].username=test",
+                "shareit.datasource.replicas.instances[0].password=test"
+        })
+public class IntReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_ONLY_USER_ID = 1_000_000L;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ReplicaPools replicaPools;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        try (Connection connection = new DriverManagerDataSource(REPLICA_URL, "test", "test").getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO users (id, name, email) VALUES (" + REPLICA_ONLY_USER_ID
+                        + ", 'Replica', 'replica@mail.ru')");
+            }
+        }
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToReplicaAndWritesToPrimary() throws InterruptedException {
+        awaitReplicaAvailable();
+
+        UserDto fromReplica = userService.getUserById(REPLICA_ONLY_USER_ID);
+        UserDto created = userService.addUser(UserDto.builder().name("Primary").email("primary@mail.ru").build());
+
+        assertEquals("Replica", fromReplica.getName());
+        assertNotNull(created.getId());
+        assertTrue(userService.findAll().stream().noneMatch(user -> "primary@mail.ru".equals(user.getEmail())));
+        assertTrue(meterRegistry.get("shareit.datasource.routing").tags("target", "local", "reason", "read")
+                .counter().count() >= 2);
+        assertTrue(meterRegistry.get("hikaricp.connections").tag("pool", "replica-local").gauge().value() >= 1);
+    }
+
+    private void awaitReplicaAvailable() throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && replicaPools.choose() == null; attempt++) {
+            Thread.sleep(50);
+        }
+        assertNotNull(replicaPools.choose(), "реплика не прошла проверку");
+    }
+}
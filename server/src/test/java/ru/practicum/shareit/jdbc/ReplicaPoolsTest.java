@@ -0,0 +1,63 @@
+package ru.practicum.shareit.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaPoolsTest {
+
+    @Test
+    void testLaggingReplicaIsNotChosen() {
+        try (ReplicaPools pools = new ReplicaPools(properties("SELECT 30", "lagging"))) {
+            pools.checkAll();
+
+            assertNull(pools.choose());
+        }
+    }
+
+    @Test
+    void testUnreachableReplicaIsNotChosen() {
+        ReplicaProperties properties = properties("SELECT 0", "down");
+        properties.getInstances().get(0).setUrl("jdbc:h2:tcp://localhost:1/down");
+        try (ReplicaPools pools = new ReplicaPools(properties)) {
+            pools.checkAll();
+
+            assertNull(pools.choose());
+        }
+    }
+
+    @Test
+    void testHealthyReplicasAreChosenInTurn() {
+        ReplicaProperties properties = properties("SELECT 1", "first");
+        properties.getInstances().add(replica("second"));
+        try (ReplicaPools pools = new ReplicaPools(properties)) {
+            pools.checkAll();
+
+            String first = pools.choose().getName();
+            String second = pools.choose().getName();
+            assertNotEquals(first, second);
+        }
+    }
+
+    private static ReplicaProperties properties(String lagQuery, String name) {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setLagQuery(lagQuery);
+        properties.setMaxLag(Duration.ofSeconds(10));
+        properties.setInstances(new ArrayList<>(List.of(replica(name))));
+        return properties;
+    }
+
+    private static ReplicaProperties.Replica replica(String name) {
+        ReplicaProperties.Replica replica = new ReplicaProperties.Replica();
+        replica.setName(name);
+        replica.setUrl("jdbc:h2:mem:" + name);
+        replica.setUsername("test");
+        replica.setPassword("test");
+        replica.setConnectionTimeout(Duration.ofMillis(500));
+        return replica;
+    }
+}
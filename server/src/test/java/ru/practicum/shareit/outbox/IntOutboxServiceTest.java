@@ -0,0 +1,45 @@
+package ru.practicum.shareit.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IntOutboxServiceTest {
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testEventIsDiscardedWithRolledBackTransaction() {
+        User recipient = userRepository.save(User.builder().name("recipient").email("recipient@outbox.ru").build());
+
+        Long eventId = new TransactionTemplate(transactionManager).execute(status -> {
+            OutboxEvent event = outboxService.append("test", recipient.getId(), Map.of("key", "value"));
+            assertEquals("{\"key\":\"value\"}", event.getPayload());
+            status.setRollbackOnly();
+            return event.getId();
+        });
+
+        assertFalse(outboxRepository.existsById(eventId));
+    }
+
+    @Test
+    void testEventCannotBeWrittenOutsideTransaction() {
+        assertThrows(IllegalTransactionStateException.class, () -> outboxService.append("test", 1L, "payload"));
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemNewRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.feed.ItemResponseFeed;
+import ru.practicum.shareit.request.feed.RequestFeed;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.time.LocalDateTime;
@@ -38,6 +40,10 @@ public class ItemRequestControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ItemRequestService requestService;
+    @MockBean
+    private RequestFeed requestFeed;
+    @MockBean
+    private ItemResponseFeed itemResponseFeed;
 
     @Test
     void createNewRequest() throws Exception {
@@ -88,6 +94,23 @@ public class ItemRequestControllerTest {
         verify(requestService).getAllRequestsForAllUsers(anyLong(), anyInt(), anyInt());
     }
 
+    @Test
+    void getAllRequestsAfterCursor() throws Exception {
+        LocalDateTime afterCreated = LocalDateTime.of(2024, 1, 1, 12, 0, 30);
+        when(requestService.getAllRequestsForAllUsers(1L, afterCreated, 7L, 5))
+                .thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("afterCreated", "2024-01-01T12:00:30")
+                        .param("afterId", "7")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(requestService, never()).getAllRequestsForAllUsers(anyLong(), anyInt(), anyInt());
+    }
+
 
     @Test
     void getRequestById() throws Exception {
@@ -0,0 +1,230 @@
+package ru.practicum.shareit.request.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemChangedEvent;
+import ru.practicum.shareit.item.search.ItemDeletedEvent;
+import ru.practicum.shareit.request.matching.SuggestionsAddedEvent;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestItemsCacheTest {
+    private final User owner = User.builder().id(10L).name("Owner").email("owner@email.ru").build();
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestItemsCache cache = new RequestItemsCache(properties(), meterRegistry, clock::get);
+    private final List<List<Long>> loads = new ArrayList<>();
+    private final List<Item> stored = new ArrayList<>();
+    private final List<List<Long>> suggestionLoads = new ArrayList<>();
+    private final List<RequestSuggestion> suggestions = new ArrayList<>();
+
+    @Test
+    void testSecondCallIsServedFromCache() {
+        stored.add(item(1L, "Дрель", 1L));
+
+        Map<Long, RequestItems> first = cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+        Map<Long, RequestItems> second = cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+
+        assertEquals(List.of(List.of(1L, 2L)), loads);
+        assertEquals(Set.of(1L), ids(second.get(1L).getItems()));
+        assertTrue(second.get(2L).getItems().isEmpty());
+        assertEquals(first.get(1L).getItems(), second.get(1L).getItems());
+        assertNull(second.get(1L).getItems().iterator().next().getOwner());
+        assertEquals(2, meterRegistry.counter("shareit.request.items.cache", "result", "hit").count());
+        assertEquals(2, meterRegistry.counter("shareit.request.items.cache", "result", "miss").count());
+    }
+
+    @Test
+    void testOnlyMissingRequestsAreLoaded() {
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+
+        assertEquals(List.of(List.of(1L), List.of(2L)), loads);
+    }
+
+    @Test
+    void testCreatedItemIsAddedToCachedRequest() {
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.onItemChanged(new ItemChangedEvent(5L, 10L, "Пила", "Ножовка", true, 1L));
+
+        Set<Item> items = cache.get(List.of(1L), this::load, this::loadSuggestions).get(1L).getItems();
+        assertEquals(Set.of(5L), ids(items));
+        assertEquals("Пила", items.iterator().next().getName());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void testUpdatedItemReplacesCachedCopy() {
+        stored.add(item(1L, "Дрель", 1L));
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.onItemChanged(new ItemChangedEvent(1L, 10L, "Дрель ударная", "Дрель", false, 1L));
+
+        Item item = cache.get(List.of(1L), this::load, this::loadSuggestions).get(1L).getItems().iterator().next();
+        assertEquals("Дрель ударная", item.getName());
+        assertFalse(item.getAvailable());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void testDeletedItemIsRemovedFromCachedRequest() {
+        stored.add(item(1L, "Дрель", 1L));
+        stored.add(item(2L, "Перфоратор", 1L));
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.onItemDeleted(new ItemDeletedEvent(1L, 1L));
+
+        assertEquals(Set.of(2L), ids(cache.get(List.of(1L), this::load, this::loadSuggestions).get(1L).getItems()));
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void testItemsWithoutRequestDoNotTouchCache() {
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.onItemChanged(new ItemChangedEvent(5L, 10L, "Пила", "Ножовка", true, null));
+
+        assertTrue(cache.get(List.of(1L), this::load, this::loadSuggestions).get(1L).getItems().isEmpty());
+    }
+
+    @Test
+    void testLoadRacingWithChangeIsNotStored() {
+        stored.add(item(1L, "Дрель", 1L));
+
+        Map<Long, RequestItems> items = cache.get(List.of(1L), ids -> {
+            List<Item> loaded = load(ids);
+            cache.onItemDeleted(new ItemDeletedEvent(1L, 1L));
+            return loaded;
+        }, this::loadSuggestions);
+
+        assertEquals(Set.of(1L), ids(items.get(1L).getItems()));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testExpiredRequestIsReloaded() {
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+        clock.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedRequestIsEvicted() {
+        cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.get(List.of(3L), this::load, this::loadSuggestions);
+        cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+
+        assertEquals(2, cache.size());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L), List.of(2L)), loads);
+    }
+
+    @Test
+    void testWarmViewIssuesNoQueries() {
+        stored.add(item(1L, "Дрель", 1L));
+        suggestions.add(suggestion(1L, item(7L, "Перфоратор", null)));
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        RequestItems view = cache.get(List.of(1L), this::load, this::loadSuggestions).get(1L);
+
+        assertEquals(Set.of(1L), ids(view.getItems()));
+        assertEquals(List.of(7L), suggestionIds(view));
+        assertEquals(1, loads.size());
+        assertEquals(1, suggestionLoads.size());
+    }
+
+    @Test
+    void testSuggestionsKeepScoreOrderAndHideUnavailableItems() {
+        suggestions.add(suggestion(1L, item(7L, "Перфоратор", null)));
+        suggestions.add(suggestion(1L, item(8L, "Шуруповёрт", null)));
+        cache.get(List.of(1L), this::load, this::loadSuggestions);
+
+        cache.onItemChanged(new ItemChangedEvent(7L, 10L, "Перфоратор", "Перфоратор", false, null));
+        assertEquals(List.of(8L), suggestionIds(cache.get(List.of(1L), this::load, this::loadSuggestions).get(1L)));
+
+        cache.onItemChanged(new ItemChangedEvent(7L, 10L, "Перфоратор", "Перфоратор", true, null));
+        assertEquals(List.of(7L, 8L), suggestionIds(cache.get(List.of(1L), this::load, this::loadSuggestions)
+                .get(1L)));
+        assertEquals(1, suggestionLoads.size());
+    }
+
+    @Test
+    void testDeletedItemIsRemovedFromCachedSuggestions() {
+        suggestions.add(suggestion(1L, item(7L, "Перфоратор", null)));
+        suggestions.add(suggestion(2L, item(7L, "Перфоратор", null)));
+        cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+
+        cache.onItemDeleted(new ItemDeletedEvent(7L, null));
+
+        Map<Long, RequestItems> views = cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+        assertTrue(views.get(1L).getSuggestions().isEmpty());
+        assertTrue(views.get(2L).getSuggestions().isEmpty());
+        assertEquals(1, suggestionLoads.size());
+    }
+
+    @Test
+    void testAddedSuggestionsReloadRequest() {
+        cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+        suggestions.add(suggestion(1L, item(7L, "Перфоратор", null)));
+
+        cache.onSuggestionsAdded(new SuggestionsAddedEvent(1L));
+
+        Map<Long, RequestItems> views = cache.get(List.of(1L, 2L), this::load, this::loadSuggestions);
+        assertEquals(List.of(7L), suggestionIds(views.get(1L)));
+        assertEquals(List.of(List.of(1L, 2L), List.of(1L)), suggestionLoads);
+    }
+
+    private List<Item> load(List<Long> requestIds) {
+        loads.add(List.copyOf(requestIds));
+        return stored.stream()
+                .filter(item -> requestIds.contains(item.getRequestId()))
+                .collect(Collectors.toList());
+    }
+
+    private List<RequestSuggestion> loadSuggestions(List<Long> requestIds) {
+        suggestionLoads.add(List.copyOf(requestIds));
+        return suggestions.stream()
+                .filter(suggestion -> requestIds.contains(suggestion.getRequestId()))
+                .collect(Collectors.toList());
+    }
+
+    private RequestSuggestion suggestion(Long requestId, Item item) {
+        return RequestSuggestion.builder().requestId(requestId).item(item).score(1.0).build();
+    }
+
+    private Item item(Long id, String name, Long requestId) {
+        return Item.builder().id(id).name(name).description(name).available(true).owner(owner)
+                .requestId(requestId).build();
+    }
+
+    private static Set<Long> ids(Set<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toSet());
+    }
+
+    private static List<Long> suggestionIds(RequestItems view) {
+        return view.getSuggestions().stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private static RequestItemsCacheProperties properties() {
+        RequestItemsCacheProperties properties = new RequestItemsCacheProperties();
+        properties.setMaxRequests(2);
+        return properties;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.request.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedSubscriberTest {
+    private final List<Runnable> drains = new ArrayList<>();
+
+    @Test
+    void testOldestEventsAreDroppedWhenBufferIsFull() {
+        FeedSubscriber<ItemRequestDto> subscriber = subscriber(2);
+
+        assertFalse(subscriber.offer(request(1)));
+        assertFalse(subscriber.offer(request(2)));
+        assertTrue(subscriber.offer(request(3)));
+
+        assertEquals(2, subscriber.buffered());
+        assertTrue(drains.isEmpty());
+    }
+
+    @Test
+    void testReplayIsSentBeforeLiveEventsWithoutDuplicates() {
+        FeedSubscriber<ItemRequestDto> subscriber = subscriber(10);
+        subscriber.offer(request(3));
+
+        subscriber.start(List.of(request(1), request(2), request(3)));
+
+        assertEquals(3, subscriber.buffered());
+        assertEquals(1, drains.size());
+        drains.get(0).run();
+        assertEquals(0, subscriber.buffered());
+    }
+
+    @Test
+    void testClosedSubscriberIsRemovedOnce() {
+        List<FeedSubscriber<ItemRequestDto>> removed = new ArrayList<>();
+        FeedSubscriber<ItemRequestDto> subscriber = new FeedSubscriber<>(1L, new SseEmitter(), 2, drains::add,
+                removed::add, ItemRequestDto::getId, FeedSubscriberTest::toEvent);
+
+        subscriber.close();
+        subscriber.close();
+        subscriber.start(List.of(request(1)));
+
+        assertEquals(List.of(subscriber), removed);
+        assertTrue(drains.isEmpty());
+    }
+
+    private FeedSubscriber<ItemRequestDto> subscriber(int bufferSize) {
+        return new FeedSubscriber<>(1L, new SseEmitter(), bufferSize, drains::add, subscriber -> {
+        }, ItemRequestDto::getId, FeedSubscriberTest::toEvent);
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(ItemRequestDto request) {
+        return SseEmitter.event().id(String.valueOf(request.getId())).data(request.getDescription());
+    }
+
+    private static ItemRequestDto request(long id) {
+        return ItemRequestDto.builder().id(id).description("Запрос " + id).requestorId(2L).build();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.request.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.OutboxEventRepository;
+import ru.practicum.shareit.request.dto.ItemNewRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class IntItemResponseFeedTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemResponseFeed itemResponseFeed;
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Test
+    void testRequestorIsNotifiedAboutResponsesAndResumesFromOutbox() throws Exception {
+        long requestorId = userService.addUser(UserDto.builder().name("Requestor").email("requestor@outbox.ru").build())
+                .getId();
+        long ownerId = userService.addUser(UserDto.builder().name("Owner").email("owner@outbox.ru").build())
+                .getId();
+        ItemRequestDto request = requestService.addNewRequest(
+                ItemNewRequestDto.builder().description("Нужна стремянка").build(), requestorId);
+        HttpResponse<InputStream> stream = client.send(streamRequest(requestorId, null),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, stream.statusCode());
+        awaitSubscribers(1);
+
+        itemService.createItem(ownerId, ItemDto.builder().name("Вещь без запроса").description("Просто вещь")
+                .available(true).build());
+        ItemDto first = itemService.createItem(ownerId, ItemDto.builder().name("Стремянка")
+                .description("Три ступени").available(true).requestId(request.getId()).build());
+        List<String> event;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(stream.body(), StandardCharsets.UTF_8))) {
+            event = readEvent(reader);
+        }
+        assertTrue(event.get(0).startsWith("id:"));
+        assertEquals("event:item", event.get(1));
+        assertTrue(event.get(2).contains("\"id\":" + first.getId()));
+        long firstEventId = Long.parseLong(event.get(0).substring("id:".length()));
+        assertNotNull(outboxRepository.findById(firstEventId).orElseThrow().getPublishedAt());
+
+        ItemDto second = itemService.createItem(ownerId, ItemDto.builder().name("Лестница")
+                .description("Пять ступеней").available(true).requestId(request.getId()).build());
+        HttpResponse<InputStream> resumed = client.send(streamRequest(requestorId, firstEventId),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resumed.body(), StandardCharsets.UTF_8))) {
+            assertTrue(readEvent(reader).get(2).contains("\"id\":" + second.getId()));
+        }
+    }
+
+    @Test
+    void testUnknownUserCannotSubscribe() throws Exception {
+        HttpResponse<Void> response = client.send(streamRequest(999_999L, null),
+                HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(404, response.statusCode());
+    }
+
+    private HttpRequest streamRequest(long userId, Long lastEventId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/requests/responses/stream"))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", String.valueOf(lastEventId));
+        }
+        return builder.build();
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (itemResponseFeed.getSubscriberCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<String> readEvent(BufferedReader reader) throws Exception {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!lines.isEmpty()) {
+                    return lines;
+                }
+            } else if (!line.startsWith(":")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
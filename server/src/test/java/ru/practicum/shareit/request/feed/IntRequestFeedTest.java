@@ -0,0 +1,112 @@
+package ru.practicum.shareit.request.feed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import ru.practicum.shareit.request.dto.ItemNewRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class IntRequestFeedTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private RequestFeed requestFeed;
+
+    @Test
+    void testNewRequestsAreStreamedToOtherUsersAndReplayedOnReconnect() throws Exception {
+        long subscriberId = userService.addUser(UserDto.builder().name("Reader").email("reader@feed.ru").build())
+                .getId();
+        long authorId = userService.addUser(UserDto.builder().name("Author").email("author@feed.ru").build())
+                .getId();
+        HttpResponse<InputStream> stream = client.send(streamRequest(subscriberId, null),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, stream.statusCode());
+        awaitSubscribers(1);
+        requestService.addNewRequest(ItemNewRequestDto.builder().description("Своя").build(), subscriberId);
+        ItemRequestDto first = requestService.addNewRequest(
+                ItemNewRequestDto.builder().description("Нужна дрель").build(), authorId);
+        List<String> event;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(stream.body(), StandardCharsets.UTF_8))) {
+            event = readEvent(reader);
+        }
+        assertEquals("id:" + first.getId(), event.get(0));
+        assertEquals("event:request", event.get(1));
+        assertTrue(event.get(2).contains("Нужна дрель"));
+
+        ItemRequestDto second = requestService.addNewRequest(
+                ItemNewRequestDto.builder().description("Нужна пила").build(), authorId);
+        HttpResponse<InputStream> resumed = client.send(streamRequest(subscriberId, first.getId()),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resumed.body(), StandardCharsets.UTF_8))) {
+            assertEquals("id:" + second.getId(), readEvent(reader).get(0));
+        }
+    }
+
+    @Test
+    void testUnknownUserCannotSubscribe() throws Exception {
+        HttpResponse<Void> response = client.send(streamRequest(999_999L, null),
+                HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(404, response.statusCode());
+    }
+
+    private HttpRequest streamRequest(long userId, Long lastEventId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/requests/stream"))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", String.valueOf(lastEventId));
+        }
+        return builder.build();
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestFeed.getSubscriberCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<String> readEvent(BufferedReader reader) throws Exception {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!lines.isEmpty()) {
+                    return lines;
+                }
+            } else if (!line.startsWith(":")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemNewRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IntRequestMatcherTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService requestService;
+    @Autowired
+    private RequestSuggestionRepository suggestionRepository;
+    @Autowired
+    private ItemRequestRepository requestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Подбор идёт после фиксации, поэтому тест не может откатить свои данные и удаляет их сам.
+     */
+    @AfterEach
+    void deleteData() {
+        suggestionRepository.deleteAll();
+        requestRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testExistingItemsAreSuggestedToNewRequest() throws InterruptedException {
+        long ownerId = userService.addUser(UserDto.builder().name("Owner").email("owner@matching.ru").build())
+                .getId();
+        long requestorId = userService.addUser(UserDto.builder().name("Requestor").email("requestor@matching.ru")
+                .build()).getId();
+        ItemDto perforator = itemService.createItem(ownerId, ItemDto.builder().name("Перфоратор")
+                .description("Перфоратор с насадками для бетона").available(true).build());
+        ItemDto hidden = itemService.createItem(ownerId, ItemDto.builder().name("Перфоратор старый")
+                .description("Перфоратор в ремонте").available(true).build());
+        itemService.updateItem(ownerId, hidden.getId(), ItemDto.builder().available(false).build());
+        ItemDto own = itemService.createItem(requestorId, ItemDto.builder().name("Перфоратор")
+                .description("Свой перфоратор").available(true).build());
+
+        ItemRequestDto request = requestService.addNewRequest(ItemNewRequestDto.builder()
+                .description("Нужен перфоратор, сверлить бетон").build(), requestorId);
+        assertNull(request.getSuggestions());
+
+        List<Long> suggested = List.of();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (suggested.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            suggested = requestService.getRequestById(requestorId, request.getId()).getSuggestions().stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toList());
+        }
+        assertFalse(suggested.isEmpty());
+        assertEquals(perforator.getId(), suggested.get(0));
+        assertFalse(suggested.contains(hidden.getId()));
+        assertFalse(suggested.contains(own.getId()));
+    }
+}
@@ -13,6 +13,8 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,6 +34,8 @@ public class IntItemRequestServiceImplTest {
     private final ItemRequestRepository requestRepository;
     @Autowired
     private final ItemRequestServiceImpl requestService;
+    @PersistenceContext
+    private EntityManager entityManager;
     private final User requestor = User.builder().name("user2").email("user2@mail.ru").build();
     private final ItemRequest request = ItemRequest.builder().description("Нужна отвертка").requestor(requestor)
             .created(LocalDateTime.now()).build();
@@ -79,4 +83,34 @@ public class IntItemRequestServiceImplTest {
         assertEquals(requestor.getId(), actualRequest.getRequestorId());
         assertNotNull(actualRequest.getCreated());
     }
+
+    @Test
+    void testAllRequestsFeedExcludesCallerAndPagesByCursor() {
+        User user = User.builder().name("user").email("user@mail.ru").build();
+        userRepository.save(user);
+        for (int i = 0; i < 3; i++) {
+            requestRepository.save(ItemRequest.builder().description("Своя " + i).requestor(user).build());
+            requestRepository.save(ItemRequest.builder().description("Чужая " + i).requestor(requestor).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ItemRequestDto> firstPage = new ArrayList<>(requestService.getAllRequestsForAllUsers(user.getId(), 0, 2));
+        ItemRequestDto last = firstPage.get(firstPage.size() - 1);
+        List<ItemRequestDto> secondPage = new ArrayList<>(requestService.getAllRequestsForAllUsers(user.getId(),
+                last.getCreated(), last.getId(), 2));
+
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        List<ItemRequestDto> feed = new ArrayList<>(firstPage);
+        feed.addAll(secondPage);
+        assertTrue(feed.stream().allMatch(request -> request.getRequestorId().equals(requestor.getId())));
+        assertEquals(4, feed.stream().map(ItemRequestDto::getId).distinct().count());
+        for (int i = 1; i < feed.size(); i++) {
+            ItemRequestDto previous = feed.get(i - 1);
+            ItemRequestDto current = feed.get(i);
+            assertTrue(current.getCreated().isBefore(previous.getCreated())
+                    || current.getCreated().equals(previous.getCreated()) && current.getId() < previous.getId());
+        }
+    }
 }
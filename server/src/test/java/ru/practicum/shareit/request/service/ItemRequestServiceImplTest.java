@@ -1,20 +1,26 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.cache.RequestItemsCache;
+import ru.practicum.shareit.request.cache.RequestItemsCacheProperties;
 import ru.practicum.shareit.request.dto.ItemNewRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.feed.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -45,6 +51,13 @@ public class ItemRequestServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private ItemRequestRepository requestRepository;
+    @Mock
+    private RequestSuggestionRepository suggestionRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private RequestItemsCache itemsCache = new RequestItemsCache(new RequestItemsCacheProperties(),
+            new SimpleMeterRegistry());
     @InjectMocks
     private ItemRequestServiceImpl requestService;
 
@@ -65,6 +78,7 @@ public class ItemRequestServiceImplTest {
 
         verify(userRepository).findById(anyLong());
         verify(requestRepository).save(any(ItemRequest.class));
+        verify(eventPublisher).publishEvent(any(ItemRequestCreatedEvent.class));
     }
 
     @Test
@@ -189,7 +203,8 @@ public class ItemRequestServiceImplTest {
     @Test
     void testGetAllRequestsForAllUsers() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
-        when(requestRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(request, secondRequest)));
+        when(requestRepository.findOtherUsersRequests(eq(1L), any(PageRequest.class)))
+                .thenReturn(List.of(request, secondRequest));
 
         Collection<ItemRequestDto> allRequests = requestService.getAllRequestsForAllUsers(owner.getId(), 0, 10);
 
@@ -206,7 +221,21 @@ public class ItemRequestServiceImplTest {
         }
 
         verify(userRepository).findById(owner.getId());
-        verify(requestRepository).findAll(any(PageRequest.class));
+        verify(requestRepository).findOtherUsersRequests(owner.getId(), PageRequest.of(0, 10));
+        verify(itemRepository).findAllByRequestIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    void testGetAllRequestsForAllUsersAfterCursor() {
+        LocalDateTime created = LocalDateTime.now();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(requestRepository.findOtherUsersRequestsBefore(1L, created, 5L, PageRequest.ofSize(10)))
+                .thenReturn(List.of());
+
+        Collection<ItemRequestDto> requests = requestService.getAllRequestsForAllUsers(owner.getId(), created, 5L, 10);
+
+        assertTrue(requests.isEmpty());
+        verify(itemRepository, never()).findAllByRequestIdIn(any());
     }
 
     @Test
@@ -216,7 +245,7 @@ public class ItemRequestServiceImplTest {
         assertThrows(ObjectNotFoundException.class, () -> requestService.getAllRequestsForAllUsers(100L, 0, 10));
 
         verify(userRepository).findById(100L);
-        verify(requestRepository, never()).findAll(any(PageRequest.class));
+        verify(requestRepository, never()).findOtherUsersRequests(anyLong(), any(PageRequest.class));
     }
 
     @Test
@@ -226,6 +255,6 @@ public class ItemRequestServiceImplTest {
         assertThrows(BadRequestException.class, () -> requestService.getAllRequestsForAllUsers(-1L, 0, 10));
 
         verify(userRepository).findById(-1L);
-        verify(requestRepository, never()).findAll(any(PageRequest.class));
+        verify(requestRepository, never()).findOtherUsersRequests(anyLong(), any(PageRequest.class));
     }
 }
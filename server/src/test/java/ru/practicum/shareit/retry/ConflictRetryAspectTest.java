@@ -0,0 +1,76 @@
+package ru.practicum.shareit.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConflictRetryAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConflictingService service;
+    private ConflictingService proxy;
+
+    @BeforeEach
+    void setUp() {
+        ConflictRetryProperties properties = new ConflictRetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setBackoff(Duration.ofMillis(1));
+        service = new ConflictingService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(service);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(properties, meterRegistry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void testRetriesUntilWriteSucceeds() {
+        service.conflicts = 2;
+
+        assertEquals("ok", proxy.decide());
+        assertEquals(3, service.calls);
+        assertEquals(2, meterRegistry.counter("shareit.conflict.retries",
+                "method", "ConflictingService.decide").count());
+    }
+
+    @Test
+    void testThrowsConflictWhenAttemptsExhausted() {
+        service.conflicts = 5;
+
+        assertThrows(ConflictException.class, proxy::decide);
+        assertEquals(3, service.calls);
+        assertEquals(1, meterRegistry.counter("shareit.conflict.exhausted",
+                "method", "ConflictingService.decide").count());
+    }
+
+    @Test
+    void testOtherExceptionsAreNotRetried() {
+        assertThrows(IllegalStateException.class, proxy::fail);
+        assertEquals(1, service.calls);
+    }
+
+    static class ConflictingService {
+        private int conflicts;
+        private int calls;
+
+        @RetryOnConflict
+        public String decide() {
+            calls++;
+            if (calls <= conflicts) {
+                throw new OptimisticLockingFailureException("версия изменилась");
+            }
+            return "ok";
+        }
+
+        @RetryOnConflict
+        public String fail() {
+            calls++;
+            throw new IllegalStateException("ошибка");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.statistics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class IntHibernateStatisticsTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private HibernateStatisticsEndpoint endpoint;
+
+    @Test
+    void testQueriesAndEntityLoadsAreReported() {
+        userRepository.save(User.builder().name("User").email("stats@mail.ru").build());
+        endpoint.reset();
+
+        userService.findAll();
+
+        HibernateStatisticsSnapshot snapshot = endpoint.hibernate();
+        assertTrue(snapshot.isEnabled());
+        assertTrue(snapshot.getQueries().stream()
+                .anyMatch(query -> query.getQuery().contains("User") && query.getExecutionCount() == 1
+                        && query.getRowsFetched() >= 1));
+        assertTrue(snapshot.getEntities().containsKey(User.class.getName()));
+    }
+}
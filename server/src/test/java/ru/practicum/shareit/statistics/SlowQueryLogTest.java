@@ -0,0 +1,57 @@
+package ru.practicum.shareit.statistics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.practicum.shareit.jdbc.StatementListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    @Test
+    void testOnlyQueriesAboveThresholdAreCounted() {
+        QueryStatisticsProperties properties = new QueryStatisticsProperties();
+        properties.setSlowQueryThreshold(Duration.ofMillis(100));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SlowQueryLog slowQueryLog = new SlowQueryLog(properties, meterRegistry);
+
+        slowQueryLog.afterExecute(null, "select 1", List.of(), TimeUnit.MILLISECONDS.toNanos(99), null);
+        slowQueryLog.afterExecute(null, "select 1", List.of(), TimeUnit.MILLISECONDS.toNanos(100), null);
+
+        assertEquals(1, meterRegistry.get("shareit.db.slow.queries").counter().count());
+    }
+
+    @Test
+    void testDisabledLogIsNotRegistered() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withUserConfiguration(SlowQueryLog.class);
+
+        contextRunner.run(context -> assertEquals(1, context.getBeanNamesForType(StatementListener.class).length));
+        contextRunner.withPropertyValues("shareit.query-statistics.slow-query-log-enabled=false")
+                .run(context -> assertEquals(0, context.getBeanNamesForType(StatementListener.class).length));
+    }
+
+    @Test
+    void testFingerprintsHideValuesButMatchForSameBinds() {
+        List<String> first = SlowQueryLog.fingerprints(Arrays.asList(1L, "user@mail.ru", null));
+        List<String> same = SlowQueryLog.fingerprints(Arrays.asList(1L, "user@mail.ru", null));
+        List<String> other = SlowQueryLog.fingerprints(Arrays.asList(2L, "user@mail.ru", null));
+
+        assertEquals(first, same);
+        assertNotEquals(first, other);
+        assertTrue(first.get(1).startsWith("String#"));
+        assertFalse(first.get(1).contains("user@mail.ru"));
+        assertEquals("null", first.get(2));
+        String sql = SlowQueryLog.normalize("select *\n  from users\n where id = ?");
+        assertEquals("select * from users where id = ?", sql);
+        assertEquals(SlowQueryLog.fingerprint(sql, first), SlowQueryLog.fingerprint(sql, same));
+    }
+}
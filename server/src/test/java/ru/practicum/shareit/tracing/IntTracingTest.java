@@ -0,0 +1,90 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit.tracing.enabled=true",
+                "shareit.tracing.export-file=target/int-tracing-test.jsonl"
+        })
+public class IntTracingTest {
+    private static final Path TRACES = Path.of("target/int-tracing-test.jsonl");
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testRequestProducesOneTraceTreeWithSql() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(TraceContext.TRACEPARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01");
+
+        ResponseEntity<String> response = restTemplate.exchange("/users", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        TraceContext returned = TraceContext.parse(response.getHeaders().getFirst(TraceContext.TRACEPARENT_HEADER));
+        assertNotNull(returned);
+        assertEquals(TRACE_ID, returned.getTraceId());
+
+        List<JsonNode> spans = awaitSpans(returned.getSpanId());
+        Map<String, JsonNode> byName = spans.stream()
+                .collect(Collectors.toMap(span -> span.get("name").asText(), Function.identity(), (a, b) -> a));
+        JsonNode serverSpan = byName.get("GET /users");
+        JsonNode serviceSpan = byName.get("UserServiceImpl.findAll");
+        JsonNode sqlSpan = byName.get("SQL SELECT");
+        assertNotNull(serverSpan);
+        assertNotNull(serviceSpan);
+        assertNotNull(sqlSpan);
+        assertEquals(PARENT_SPAN_ID, serverSpan.get("parentSpanId").asText());
+        assertEquals(serverSpan.get("spanId").asText(), serviceSpan.get("parentSpanId").asText());
+        assertEquals(serviceSpan.get("spanId").asText(), sqlSpan.get("parentSpanId").asText());
+        assertTrue(sqlSpan.get("attributes").get("db.statement").asText().contains("users"));
+    }
+
+    private static List<JsonNode> awaitSpans(String serverSpanId) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (Files.exists(TRACES)) {
+                List<JsonNode> spans = new ArrayList<>();
+                boolean serverSpanWritten = false;
+                for (String line : Files.readAllLines(TRACES)) {
+                    JsonNode span = objectMapper.readTree(line);
+                    if (TRACE_ID.equals(span.get("traceId").asText())) {
+                        spans.add(span);
+                        serverSpanWritten |= serverSpanId.equals(span.get("spanId").asText());
+                    }
+                }
+                if (serverSpanWritten) {
+                    return spans;
+                }
+            }
+            Thread.sleep(100);
+        }
+        fail("Спаны запроса не записаны в " + TRACES);
+        return List.of();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = UserController.class, properties = "shareit.user-stream.timeout=0s")
+public class UserControllerStreamTimeoutTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private UserService userService;
+
+    @Test
+    void streamEndsCleanlyWhenTimeoutExpires() throws Exception {
+        List<Boolean> accepted = new ArrayList<>();
+        doAnswer(invocation -> {
+            Predicate<UserDto> consumer = invocation.getArgument(0);
+            accepted.add(consumer.test(UserDto.builder().id(1L).name("testUser").email("user@email.ru").build()));
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/users/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(30_000L, result.getRequest().getAsyncContext().getTimeout());
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("", body);
+        assertEquals(List.of(false), accepted);
+    }
+}
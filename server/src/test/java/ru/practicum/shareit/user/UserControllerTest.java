@@ -7,19 +7,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -48,6 +55,39 @@ public class UserControllerTest {
         verify(userService).findAll();
     }
 
+    @Test
+    void getUsersPage() throws Exception {
+        when(userService.findAllAfter(1L, 1)).thenReturn(List.of(userSecondDto));
+
+        mockMvc.perform(get("/users").param("afterId", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(userSecondDto.getId()), Long.class));
+
+        verify(userService, never()).findAll();
+    }
+
+    @Test
+    void streamAllUsers() throws Exception {
+        doAnswer(invocation -> {
+            Predicate<UserDto> consumer = invocation.getArgument(0);
+            usersDto.forEach(consumer::test);
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/users/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(userSecondDto, objectMapper.readValue(lines[1], UserDto.class));
+    }
+
     @Test
     void createNewUser() throws Exception {
         when(userService.addUser(any())).thenReturn(userDto);
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.user.email;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void testAddedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        for (int i = 0; i < 1000; i++) {
+            filter.add("user" + i + "@mail.ru");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@mail.ru"));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.add("user" + i + "@mail.ru");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other" + i + "@mail.ru")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 200, "ложных срабатываний: " + falsePositives);
+    }
+}
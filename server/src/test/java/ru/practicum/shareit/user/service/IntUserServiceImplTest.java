@@ -1,16 +1,25 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
+import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 @Transactional
@@ -24,6 +33,8 @@ public class IntUserServiceImplTest {
     private UserRepository userRepository;
     @Autowired
     private UserServiceImpl userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -36,7 +47,54 @@ public class IntUserServiceImplTest {
 
         UserDto updatedUser = userService.updateUser(user.getId(), dtoForUserUpdate);
 
-        assertEquals(user.getName(), updatedUser.getName());
-        assertEquals(user.getEmail(), updatedUser.getEmail());
+        assertEquals(dtoForUserUpdate.getName(), updatedUser.getName());
+        assertEquals(dtoForUserUpdate.getEmail(), updatedUser.getEmail());
+        assertEquals(updatedUser, userService.findAllAfter(user.getId() - 1, 1).get(0));
+    }
+
+    @Test
+    void testUpdateUserChangesOnlyGivenFields() {
+        UserDto updatedUser = userService.updateUser(user.getId(), UserDto.builder().name("Only name").build());
+
+        assertEquals("Only name", updatedUser.getName());
+        assertEquals("user@mail.ru", updatedUser.getEmail());
+        assertThrows(ObjectNotFoundException.class,
+                () -> userService.updateUser(-1L, UserDto.builder().name("Nobody").build()));
+    }
+
+    @Test
+    void testUsersArePagedAndStreamedByAscendingId() {
+        User second = userRepository.save(User.builder().name("Second").email("second@mail.ru").build());
+
+        List<UserDto> page = userService.findAllAfter(user.getId() - 1, 2);
+        List<UserDto> streamed = new ArrayList<>();
+        userService.streamAll(streamed::add);
+
+        assertEquals(List.of(user.getId(), second.getId()),
+                page.stream().map(UserDto::getId).collect(Collectors.toList()));
+        assertTrue(userService.findAllAfter(second.getId(), 10).isEmpty());
+        List<Long> streamedIds = streamed.stream().map(UserDto::getId).collect(Collectors.toList());
+        assertTrue(streamedIds.containsAll(List.of(user.getId(), second.getId())));
+        assertEquals(streamedIds.stream().sorted().collect(Collectors.toList()), streamedIds);
+        assertEquals("second@mail.ru", streamed.get(streamedIds.indexOf(second.getId())).getEmail());
+    }
+
+    @Test
+    void testDuplicateEmailIsRejectedAsConflict() {
+        UserDto first = userService.addUser(UserDto.builder().name("First").email("first@mail.ru").build());
+
+        assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.addUser(UserDto.builder().name("Copy").email("first@mail.ru").build()));
+        assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.updateUser(first.getId(), UserDto.builder().email(user.getEmail()).build()));
+    }
+
+    @Test
+    void testServiceCallsAreTimed() {
+        userService.getUserById(user.getId());
+
+        assertTrue(meterRegistry.get("shareit.service")
+                .tags("class", UserServiceImpl.class.getName(), "method", "getUserById")
+                .timer().count() >= 1);
     }
 }
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.email.EmailFilter;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -24,6 +28,8 @@ public class UserServiceImplTest {
     private final UserDto userDto = UserDto.builder().id(1L).name("UserName").email("user@email.ru").build();
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EmailFilter emailFilter;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -37,6 +43,36 @@ public class UserServiceImplTest {
         verify(userRepository).save(any());
     }
 
+    @Test
+    void testCreateUserSkipsEmailQueryWhenFilterRulesItOut() {
+        when(userRepository.save(any())).thenReturn(UserMapper.toUser(userDto));
+
+        userService.addUser(userDto);
+
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailFilter).add(userDto.getEmail());
+    }
+
+    @Test
+    void testCreateUserWithTakenEmail() {
+        when(emailFilter.mightContain(userDto.getEmail())).thenReturn(true);
+        when(userRepository.existsByEmail(userDto.getEmail())).thenReturn(true);
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.addUser(userDto));
+
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateUserWithEmailTakenConcurrently() {
+        when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException("insert",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UQ_USER_EMAIL_INDEX_4\"")));
+
+        assertThrows(EmailAlreadyExistsException.class, () -> userService.addUser(userDto));
+
+        verify(emailFilter, never()).add(anyString());
+    }
+
     @Test
     void testGetUserById() {
         when(userRepository.findById(anyLong()))
@@ -65,6 +101,15 @@ public class UserServiceImplTest {
         assertEquals(1, allDtoUsers.size());
     }
 
+    @Test
+    void testFindUsersAfterId() {
+        when(userRepository.findAllAfter(0L, PageRequest.ofSize(10))).thenReturn(List.of(UserMapper.toUser(userDto)));
+
+        List<UserDto> page = userService.findAllAfter(0L, 10);
+
+        assertEquals(List.of(userDto), page);
+    }
+
     @Test
     void testFindAllUsersWithEmptyList() {
         when(userRepository.findAll()).thenReturn(Collections.emptyList());
@@ -76,25 +121,35 @@ public class UserServiceImplTest {
 
     @Test
     void testUpdateUser() {
-        userDto.setName("NameUpdated");
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(UserMapper.toUser(userDto)));
+        when(userRepository.patch(1L, "NameUpdated", null))
+                .thenReturn(Optional.of(new User(1L, "NameUpdated", userDto.getEmail())));
 
-        UserDto updatedUserDto = userService.updateUser(userDto.getId(), userDto);
+        UserDto updatedUserDto = userService.updateUser(1L, UserDto.builder().name("NameUpdated").build());
 
         assertEquals("NameUpdated", updatedUserDto.getName());
-        assertEquals(userDto.getName(), updatedUserDto.getName());
         assertEquals(userDto.getEmail(), updatedUserDto.getEmail());
+        verify(userRepository, never()).findById(anyLong());
+        verify(emailFilter, never()).add(anyString());
+    }
+
+    @Test
+    void testUpdateUserEmailToTakenOne() {
+        when(emailFilter.mightContain("taken@email.ru")).thenReturn(true);
+        when(userRepository.existsByEmailAndIdNot("taken@email.ru", 1L)).thenReturn(true);
+
+        assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.updateUser(1L, UserDto.builder().email("taken@email.ru").build()));
+
+        verify(userRepository, never()).patch(anyLong(), any(), any());
     }
 
     @Test
     void testUpdatedNotFoundUser() {
-        when(userRepository.findById(100L)).thenReturn(Optional.empty());
+        when(userRepository.patch(100L, userDto.getName(), userDto.getEmail())).thenReturn(Optional.empty());
 
         assertThrows(ObjectNotFoundException.class, () -> userService.updateUser(100L, userDto));
 
-        verify(userRepository).findById(100L);
-        verify(userRepository, never()).save(any(User.class));
+        verify(emailFilter, never()).add(anyString());
     }
 
     @Test